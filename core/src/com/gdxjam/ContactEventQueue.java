@@ -0,0 +1,87 @@
+package com.gdxjam;
+
+import com.badlogic.ashley.core.Entity;
+
+/** Pre-allocated ring buffer of contact events recorded by the {@link GameContactListener}. Each event is a type and the pair of
+ * entities it concerns, stored in parallel arrays so recording an event never allocates. The buffer only grows when more events
+ * than its capacity are recorded before it is cleared. */
+public class ContactEventQueue {
+
+	/** A projectile hit the target */
+	public static final byte HIT = 0;
+	/** A squad sensor started touching the target */
+	public static final byte TRACK = 1;
+	/** A squad sensor stopped touching the target */
+	public static final byte UNTRACK = 2;
+
+	private byte[] types;
+	private Entity[] sources;
+	private Entity[] targets;
+	private int head = 0;
+	private int size = 0;
+
+	public ContactEventQueue (int capacity) {
+		types = new byte[capacity];
+		sources = new Entity[capacity];
+		targets = new Entity[capacity];
+	}
+
+	public void add (byte type, Entity source, Entity target) {
+		if (size == types.length) resize(types.length * 2);
+		int index = (head + size) % types.length;
+		types[index] = type;
+		sources[index] = source;
+		targets[index] = target;
+		size++;
+	}
+
+	/** @param index the position of the event relative to the oldest event in the queue */
+	public byte getType (int index) {
+		return types[(head + index) % types.length];
+	}
+
+	public Entity getSource (int index) {
+		return sources[(head + index) % sources.length];
+	}
+
+	public Entity getTarget (int index) {
+		return targets[(head + index) % targets.length];
+	}
+
+	public int size () {
+		return size;
+	}
+
+	/** Drops the oldest events, releasing their entity references so pooled entities are not retained */
+	public void removeFirst (int count) {
+		count = Math.min(count, size);
+		for (int i = 0; i < count; i++) {
+			int index = (head + i) % types.length;
+			sources[index] = null;
+			targets[index] = null;
+		}
+		head = (head + count) % types.length;
+		size -= count;
+	}
+
+	public void clear () {
+		removeFirst(size);
+	}
+
+	private void resize (int capacity) {
+		byte[] newTypes = new byte[capacity];
+		Entity[] newSources = new Entity[capacity];
+		Entity[] newTargets = new Entity[capacity];
+		for (int i = 0; i < size; i++) {
+			int index = (head + i) % types.length;
+			newTypes[i] = types[index];
+			newSources[i] = sources[index];
+			newTargets[i] = targets[index];
+		}
+		types = newTypes;
+		sources = newSources;
+		targets = newTargets;
+		head = 0;
+	}
+
+}
@@ -1,43 +1,103 @@
-
 package com.gdxjam;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.physics.box2d.Contact;
 import com.badlogic.gdx.physics.box2d.ContactImpulse;
 import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.utils.Array;
 import com.gdxjam.components.FactionComponent.Faction;
-import com.gdxjam.components.HealthComponent;
 import com.gdxjam.components.ProjectileComponent;
 import com.gdxjam.components.SquadComponent;
 import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityCategory;
 import com.gdxjam.utils.Constants;
 import com.gdxjam.utils.EntityUtils;
 
+/** Records contacts into a {@link ContactEventQueue} while the world is stepping and resolves them once the step is over. Contacts
+ * are classified by the category bits of their fixtures so no component lookups are made inside the step. Contacts reported
+ * outside of a step, such as the end of the contacts of a destroyed body, are resolved right away. */
 public class GameContactListener implements ContactListener {
 
 	@SuppressWarnings("unused") private static final String TAG = GameContactListener.class.getSimpleName();
 
+	private final ContactEventQueue events = new ContactEventQueue(256);
+	private final Array<Entity> removals = new Array<Entity>(false, 64);
+	private boolean stepping = false;
+	private boolean flushing = false;
+
+	/** Defers the contacts reported from now on until {@link #endStep()} */
+	public void beginStep () {
+		stepping = true;
+	}
+
+	/** Resolves the contacts recorded during the step */
+	public void endStep () {
+		stepping = false;
+		flush();
+	}
+
 	@Override
 	public void beginContact (Contact contact) {
-		Entity entityA = (Entity)contact.getFixtureA().getBody().getUserData();
-		Entity entityB = (Entity)contact.getFixtureB().getBody().getUserData();
+		Fixture fixtureA = contact.getFixtureA();
+		Fixture fixtureB = contact.getFixtureB();
+		Entity entityA = (Entity)fixtureA.getBody().getUserData();
+		Entity entityB = (Entity)fixtureB.getBody().getUserData();
+		short categoryA = fixtureA.getFilterData().categoryBits;
+		short categoryB = fixtureB.getFilterData().categoryBits;
 
-		if (Components.PROJECTILE.has(entityA)) processProjectile(entityA, entityB);
-		if (Components.PROJECTILE.has(entityB)) processProjectile(entityB, entityA);
+		if ((categoryA & EntityCategory.PROJECTILE) != 0) events.add(ContactEventQueue.HIT, entityA, entityB);
+		if ((categoryB & EntityCategory.PROJECTILE) != 0) events.add(ContactEventQueue.HIT, entityB, entityA);
 
-		if (Components.SQUAD.has(entityA)) processTargetTracker(entityA, entityB, false);
-		if (Components.SQUAD.has(entityB)) processTargetTracker(entityB, entityA, false);
+		if ((categoryA & EntityCategory.SQUAD) != 0) events.add(ContactEventQueue.TRACK, entityA, entityB);
+		if ((categoryB & EntityCategory.SQUAD) != 0) events.add(ContactEventQueue.TRACK, entityB, entityA);
 
+		if (!stepping) flush();
 	}
 
 	@Override
 	public void endContact (Contact contact) {
-		Entity entityA = (Entity)contact.getFixtureA().getBody().getUserData();
-		Entity entityB = (Entity)contact.getFixtureB().getBody().getUserData();
+		Fixture fixtureA = contact.getFixtureA();
+		Fixture fixtureB = contact.getFixtureB();
+		Entity entityA = (Entity)fixtureA.getBody().getUserData();
+		Entity entityB = (Entity)fixtureB.getBody().getUserData();
+
+		if ((fixtureA.getFilterData().categoryBits & EntityCategory.SQUAD) != 0)
+			events.add(ContactEventQueue.UNTRACK, entityA, entityB);
+		if ((fixtureB.getFilterData().categoryBits & EntityCategory.SQUAD) != 0)
+			events.add(ContactEventQueue.UNTRACK, entityB, entityA);
 
-		if (Components.SQUAD.has(entityA)) processTargetTracker(entityA, entityB, true);
-		if (Components.SQUAD.has(entityB)) processTargetTracker(entityB, entityA, true);
+		if (!stepping) flush();
+	}
+
+	/** Resolves the recorded events in batches. Every hit lands first, then the squads update their tracking in the order the
+	 * contacts were reported, and finally the spent projectiles are queued for removal. They are destroyed with their bodies at
+	 * the next sync point of the engine, so a projectile can still report contacts until then and is marked as spent to only
+	 * hit once. Contacts reported while a batch is resolved are queued behind it and resolved by the next one. */
+	public void flush () {
+		if (flushing) return;
+		flushing = true;
+
+		while (events.size() > 0) {
+			int size = events.size();
+			for (int i = 0; i < size; i++) {
+				if (events.getType(i) == ContactEventQueue.HIT) processProjectile(events.getSource(i), events.getTarget(i));
+			}
+
+			for (int i = 0; i < size; i++) {
+				byte type = events.getType(i);
+				if (type == ContactEventQueue.TRACK)
+					processTargetTracker(events.getSource(i), events.getTarget(i), false);
+				else if (type == ContactEventQueue.UNTRACK) processTargetTracker(events.getSource(i), events.getTarget(i), true);
+			}
+
+			for (int i = 0; i < removals.size; i++)
+				EntityUtils.removeEntity(removals.get(i));
+			removals.clear();
+			events.removeFirst(size);
+		}
+		flushing = false;
 	}
 
 	public void processTargetTracker (Entity squad, Entity target, boolean contactEnd) {
@@ -49,20 +109,16 @@ public class GameContactListener implements ContactListener {
 	}
 
 	public void processProjectile (Entity projectile, Entity target) {
-		if (Components.HEALTH.has(target)) {
-			if (!Constants.friendlyFire) {
-				Faction projectileFaction = Components.FACTION.get(projectile).getFaction();
-				Faction targetFaction = Components.FACTION.get(target).getFaction();
-				if (projectileFaction == targetFaction) return;
-			}
+		Faction projectileFaction = Components.FACTION.get(projectile).getFaction();
+		boolean damaged = Components.HEALTH.has(target);
+		if (damaged && !Constants.friendlyFire && projectileFaction == Components.FACTION.get(target).getFaction()) return;
 
-			ProjectileComponent projectileComp = Components.PROJECTILE.get(projectile);
-			HealthComponent healthComp = Components.HEALTH.get(target);
-
-			healthComp.value -= projectileComp.getDamage();
-		}
+		// A projectile touching several bodies before it is removed only hits the first of them
+		ProjectileComponent projectileComp = Components.PROJECTILE.get(projectile);
+		if (projectileComp.spend()) return;
 
-		EntityUtils.removeEntity(projectile);
+		if (damaged) EntityUtils.damage(target, projectileComp.getDamage(), projectileFaction);
+		removals.add(projectile);
 	}
 
 	@Override
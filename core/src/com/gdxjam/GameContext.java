@@ -0,0 +1,93 @@
+package com.gdxjam;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Joint;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Scaling;
+import com.badlogic.gdx.utils.viewport.ScalingViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+import com.gdxjam.systems.ParticleLibrary;
+
+/** Resources that outlive a match. They are slow to create or hold native memory, so the systems of every
+ * {@link com.gdxjam.ecs.EntityManager} borrow them from here instead of creating their own, and starting a new match reuses them.
+ * Each is created on first use and released by {@link #dispose()} when the application exits.
+ * <p>
+ * Systems must leave what they borrowed ready for the next match, they never dispose it. */
+public class GameContext {
+
+	private static SpriteBatch batch;
+	private static ShapeRenderer shapeRenderer;
+	private static Stage stage;
+	private static World world;
+	private static ParticleLibrary particles;
+
+	private static final Array<Body> bodies = new Array<Body>();
+	private static final Array<Joint> joints = new Array<Joint>();
+
+	public static SpriteBatch getBatch () {
+		if (batch == null) batch = new SpriteBatch();
+		return batch;
+	}
+
+	public static ShapeRenderer getShapeRenderer () {
+		if (shapeRenderer == null) shapeRenderer = new ShapeRenderer();
+		return shapeRenderer;
+	}
+
+	/** @return the stage of the in game GUI, cleared of the actors of the previous match */
+	public static Stage getStage () {
+		if (stage == null) {
+			// Same viewport as the default stage, but drawing with the shared batch
+			Viewport viewport = new ScalingViewport(Scaling.stretch, Gdx.graphics.getWidth(), Gdx.graphics.getHeight(),
+				new OrthographicCamera());
+			stage = new Stage(viewport, getBatch());
+		}
+		return stage;
+	}
+
+	public static World getWorld () {
+		if (world == null) world = new World(new Vector2(0, 0), true);
+		return world;
+	}
+
+	/** Destroys the bodies and joints left in the world so the next match starts with an empty one */
+	public static void clearWorld () {
+		if (world == null) return;
+		world.setContactListener(null);
+		world.getJoints(joints);
+		for (int i = 0; i < joints.size; i++)
+			world.destroyJoint(joints.get(i));
+		joints.clear();
+		world.getBodies(bodies);
+		for (int i = 0; i < bodies.size; i++)
+			world.destroyBody(bodies.get(i));
+		bodies.clear();
+	}
+
+	public static ParticleLibrary getParticles () {
+		if (particles == null) particles = new ParticleLibrary();
+		return particles;
+	}
+
+	public static void dispose () {
+		// The stage does not own the batch, it is disposed first
+		if (stage != null) stage.dispose();
+		if (batch != null) batch.dispose();
+		if (shapeRenderer != null) shapeRenderer.dispose();
+		if (world != null) world.dispose();
+		if (particles != null) particles.dispose();
+		batch = null;
+		shapeRenderer = null;
+		stage = null;
+		world = null;
+		particles = null;
+	}
+
+}
@@ -6,10 +6,17 @@ import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.gdxjam.OrionPrefs.BooleanValue;
 import com.gdxjam.OrionPrefs.StringValue;
+import com.gdxjam.ecs.Archetypes;
 import com.gdxjam.ecs.EntityManager;
 import com.gdxjam.screens.AbstractScreen;
+import com.gdxjam.systems.CameraSystem;
+import com.gdxjam.systems.NavigationSystem;
+import com.gdxjam.systems.SpatialIndexSystem;
 import com.gdxjam.utils.EntityFactory;
 import com.gdxjam.utils.EntityUtils;
+import com.gdxjam.utils.RuntimeStats;
+import com.gdxjam.utils.WorldGenerator;
+import com.gdxjam.utils.WorldGenerator.WorldGeneratorParameter;
 import com.gdxjam.utils.WorldSpawner;
 
 public class GameManager {
@@ -19,6 +26,9 @@ public class GameManager {
 	private static EntityManager engine;
 	
 	private static boolean paused = false;
+	private static int worldWidth;
+	private static int worldHeight;
+	private static RuntimeStats runtimeStats;
 
 	public static void init (Game game) {
 		GameManager.game = game;
@@ -29,18 +39,63 @@ public class GameManager {
 	}
 
 	public static EntityManager initEngine () {
+		return initEngine(false);
+	}
+
+	/** @param headless creates the engine without input, rendering and GUI, see {@link EntityManager#EntityManager(boolean)} */
+	public static EntityManager initEngine (boolean headless) {
 		if (engine != null) {
 			Gdx.app.error(TAG, "engine should be disposed before initalization");
 			disposeEngine();
 		}
 
-		engine = new EntityManager();
+		engine = new EntityManager(headless);
 		EntityFactory.setEngine(engine);
 		EntityUtils.setEngine(engine);
 		WorldSpawner.init(engine);
 		return engine;
 	}
 	
+	/** Generates a world in the current engine and fits the camera, spatial index and navigation to its bounds */
+	public static void generateWorld (int width, int height, long seed, WorldGeneratorParameter param) {
+		worldWidth = width;
+		worldHeight = height;
+
+		WorldGenerator generator = new WorldGenerator(width, height, seed, param);
+		generator.generate();
+
+		engine.getSystem(CameraSystem.class).getCamera().position.set(width * 0.5f, height * 0.5f, 0);
+		engine.getSystem(CameraSystem.class).setWorldBounds(width, height);
+		engine.getSystem(SpatialIndexSystem.class).setWorldBounds(width, height);
+		engine.getSystem(NavigationSystem.class).setWorldBounds(width, height);
+	}
+
+	/** Starts a new match of the same size in the current engine, see {@link #restartMatch()} */
+	public static void restartMatch (long seed, WorldGeneratorParameter param) {
+		if (!restartMatch()) return;
+		generateWorld(worldWidth, worldHeight, seed, param);
+	}
+
+	/** Empties the current engine for a new match. The systems, the physics world and the entity and component pools are kept, only
+	 * the state of the previous match is dropped, see {@link EntityManager#restart()}. Must not be called while the engine is
+	 * updating, for example from a GUI listener it should be posted with {@link Gdx.app#postRunnable(Runnable)}.
+	 * @return false if there is no engine to restart */
+	public static boolean restartMatch () {
+		if (engine == null) {
+			Gdx.app.error(TAG, "no engine to restart the match in");
+			return false;
+		}
+
+		engine.restart();
+		resume();
+		return true;
+	}
+
+	/** @return true once {@link #initEngine()} was called and until the engine is disposed */
+	public static boolean hasEngine () {
+		return engine != null;
+	}
+	
 	public static void refreshDisplayMode(){
 		boolean fullscreen = OrionPrefs.getBoolean(BooleanValue.GRAPHICS_FULLSCREEN);
 		String resolution = OrionPrefs.getString(StringValue.GRAPHICS_RESOLUTION);
@@ -86,8 +141,18 @@ public class GameManager {
 		return engine;
 	}
 
+	public static void setRuntimeStats (RuntimeStats stats) {
+		runtimeStats = stats;
+	}
+
+	/** @return the statistics registered by the backend or null when the platform does not provide any */
+	public static RuntimeStats getRuntimeStats () {
+		return runtimeStats;
+	}
+
 	public static void exit () {
 		disposeEngine();
+		Archetypes.dispose();
 		game.getScreen().dispose();
 		Gdx.app.exit();
 	}
@@ -11,4 +11,11 @@ public class Main extends Game {
 		GameManager.setScreen(new SplashScreen());
 	}
 
+	@Override
+	public void dispose() {
+		super.dispose();
+		GameManager.disposeEngine();
+		GameContext.dispose();
+	}
+
 }
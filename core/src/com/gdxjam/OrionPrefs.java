@@ -27,6 +27,18 @@ public class OrionPrefs {
 		}
 	}
 	
+	public static enum IntValue{
+		/** Peak number of effects alive at once in earlier games, used to fill the particle pools up front */
+		PARTICLE_POOL_EXPLOSION(4),
+		PARTICLE_POOL_HARVEST(4),
+		;
+		
+		private int defaultValue;
+		private IntValue(int defaultValue){
+			this.defaultValue = defaultValue;
+		}
+	}
+	
 	public static enum BooleanValue{
 		AUDIO_MUSIC_ENABLED(true),
 		AUDIO_SOUND_ENABLED(true),
@@ -58,6 +70,15 @@ public class OrionPrefs {
 		prefs.flush();
 	}
 	
+	public static void putInteger(IntValue key, int value){
+		prefs.putInteger(key.toString(), value);
+		prefs.flush();
+	}
+	
+	public static int getInteger(IntValue key){
+		return prefs.getInteger(key.toString(), key.defaultValue);
+	}
+	
 	public static void putBoolean(BooleanValue key, boolean value){
 		prefs.putBoolean(key.toString(), value);
 	}
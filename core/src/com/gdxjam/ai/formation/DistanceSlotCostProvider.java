@@ -1,22 +1,30 @@
 package com.gdxjam.ai.formation;
 
+import com.badlogic.gdx.ai.fma.Formation;
 import com.badlogic.gdx.ai.fma.FormationMember;
 import com.badlogic.gdx.ai.fma.SoftRoleSlotAssignmentStrategy.SlotCostProvider;
 import com.badlogic.gdx.math.Vector2;
-import com.gdxjam.components.SquadComponent;
 import com.gdxjam.components.UnitComponent;
-import com.gdxjam.ecs.Components;
 
 public class DistanceSlotCostProvider implements SlotCostProvider<Vector2> {
 	
+	private Formation<Vector2> formation;
+	
+	/** The provider is created before the formation it serves so the formation is set afterwards */
+	public void setFormation(Formation<Vector2> formation) {
+		this.formation = formation;
+	}
+	
 	@Override
 	public float getCost(FormationMember<Vector2> member, int slotNumber) {
 		UnitComponent unitComp = (UnitComponent) member;
-		SquadComponent squadComp = Components.SQUAD.get(unitComp.getSquad());
 		
-		Vector2 targetPosition = squadComp.formation.getSlotAssignmentAt(slotNumber).member.getTargetLocation().getPosition();
+		// Members left over when a pooled squad is reset no longer have a position
+		if (unitComp.getSquad() == null) return 0;
+		
+		Vector2 targetPosition = formation.getSlotAssignmentAt(slotNumber).member.getTargetLocation().getPosition();
 
 		// The cost is the square distance between current position and target position
-		return unitComp.getBody().getPosition().dst2(targetPosition);
+		return unitComp.getPosition().dst2(targetPosition);
 	}
 }
@@ -0,0 +1,49 @@
+package com.gdxjam.ai.formation;
+
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.utils.Location;
+import com.badlogic.gdx.math.Vector2;
+import com.gdxjam.utils.Location2;
+import com.gdxjam.utils.Vector2Utils;
+
+/** The anchor point of a pooled formation. It delegates to the steerable of the squad currently owning the formation so the same
+ * {@link com.badlogic.gdx.ai.fma.Formation} can be reused after its squad is freed. */
+public class FormationAnchor implements Location<Vector2> {
+
+	private Steerable<Vector2> steerable;
+
+	public void setSteerable (Steerable<Vector2> steerable) {
+		this.steerable = steerable;
+	}
+
+	@Override
+	public Vector2 getPosition () {
+		return steerable.getPosition();
+	}
+
+	@Override
+	public float getOrientation () {
+		return steerable.getOrientation();
+	}
+
+	@Override
+	public void setOrientation (float orientation) {
+		steerable.setOrientation(orientation);
+	}
+
+	@Override
+	public Location<Vector2> newLocation () {
+		return new Location2();
+	}
+
+	@Override
+	public float vectorToAngle (Vector2 vector) {
+		return Vector2Utils.vectorToAngle(vector);
+	}
+
+	@Override
+	public Vector2 angleToVector (Vector2 outVector, float angle) {
+		return Vector2Utils.angleToVector(outVector, angle);
+	}
+
+}
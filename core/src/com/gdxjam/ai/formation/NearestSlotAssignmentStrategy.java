@@ -0,0 +1,63 @@
+package com.gdxjam.ai.formation;
+
+import com.badlogic.gdx.ai.fma.Formation.SlotAssignment;
+import com.badlogic.gdx.ai.fma.SlotAssignmentStrategy;
+import com.badlogic.gdx.ai.fma.SoftRoleSlotAssignmentStrategy.SlotCostProvider;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.utils.Array;
+
+/** Gives every member the cheapest slot no member before it has taken. Unlike the {@link
+ * com.badlogic.gdx.ai.fma.SoftRoleSlotAssignmentStrategy} it keeps no per member cost lists and does not sort the members, so
+ * reassigning the slots does not allocate once the squads reached their largest size. Slots have no roles.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface */
+public class NearestSlotAssignmentStrategy<T extends Vector<T>> implements SlotAssignmentStrategy<T> {
+
+	private final SlotCostProvider<T> costProvider;
+	private boolean[] filled = new boolean[16];
+
+	public NearestSlotAssignmentStrategy (SlotCostProvider<T> costProvider) {
+		this.costProvider = costProvider;
+	}
+
+	@Override
+	public void updateSlotAssignments (Array<SlotAssignment<T>> assignments) {
+		int slots = assignments.size;
+		if (filled.length < slots) filled = new boolean[Math.max(slots, filled.length * 2)];
+		for (int i = 0; i < slots; i++)
+			filled[i] = false;
+
+		// Only the slot numbers change, the cost provider may read the members through the assignments
+		for (int i = 0; i < slots; i++) {
+			SlotAssignment<T> assignment = assignments.get(i);
+			int bestSlot = -1;
+			float bestCost = Float.POSITIVE_INFINITY;
+			for (int slot = 0; slot < slots; slot++) {
+				if (filled[slot]) continue;
+				float cost = costProvider.getCost(assignment.member, slot);
+				if (bestSlot < 0 || cost < bestCost) {
+					bestSlot = slot;
+					bestCost = cost;
+				}
+			}
+			filled[bestSlot] = true;
+			assignment.slotNumber = bestSlot;
+		}
+	}
+
+	@Override
+	public int calculateNumberOfSlots (Array<SlotAssignment<T>> assignments) {
+		return assignments.size;
+	}
+
+	@Override
+	public int getRoleOfSlot (int slotNumber) {
+		return 0;
+	}
+
+	@Override
+	public void removeSlotAssignment (Array<SlotAssignment<T>> assignments, int index) {
+		assignments.removeIndex(index);
+	}
+
+}
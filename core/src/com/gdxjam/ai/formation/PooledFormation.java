@@ -0,0 +1,55 @@
+package com.gdxjam.ai.formation;
+
+import com.badlogic.gdx.ai.fma.Formation;
+import com.badlogic.gdx.ai.fma.FormationMember;
+import com.badlogic.gdx.ai.fma.FormationPattern;
+import com.badlogic.gdx.ai.fma.SlotAssignmentStrategy;
+import com.badlogic.gdx.ai.utils.Location;
+import com.badlogic.gdx.math.Vector;
+import com.badlogic.gdx.utils.Pool;
+
+/** A formation that takes the slot assignments of its members from a pool instead of creating one for every member added, so
+ * squads spawned and killed over and over do not allocate once the pool holds enough assignments for the largest squad.
+ *
+ * @param <T> Type of vector, either 2D or 3D, implementing the {@link Vector} interface */
+public class PooledFormation<T extends Vector<T>> extends Formation<T> {
+
+	private final Pool<SlotAssignment<T>> assignmentPool = new Pool<SlotAssignment<T>>() {
+		@Override
+		protected SlotAssignment<T> newObject () {
+			return new SlotAssignment<T>(null);
+		}
+	};
+
+	public PooledFormation (Location<T> anchor, FormationPattern<T> pattern, SlotAssignmentStrategy<T> slotAssignmentStrategy) {
+		super(anchor, pattern, slotAssignmentStrategy);
+	}
+
+	@Override
+	public boolean addMember (FormationMember<T> member) {
+		int occupiedSlots = slotAssignments.size;
+		if (!pattern.supportsSlots(occupiedSlots + 1)) return false;
+
+		SlotAssignment<T> assignment = assignmentPool.obtain();
+		assignment.member = member;
+		assignment.slotNumber = occupiedSlots;
+		slotAssignments.add(assignment);
+		updateSlotAssignments();
+		return true;
+	}
+
+	@Override
+	public void removeMember (FormationMember<T> member) {
+		for (int i = 0; i < slotAssignments.size; i++) {
+			SlotAssignment<T> assignment = slotAssignments.get(i);
+			if (assignment.member != member) continue;
+
+			slotAssignments.removeIndex(i);
+			assignment.member = null;
+			assignmentPool.free(assignment);
+			updateSlotAssignments();
+			return;
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.gdxjam.ai.navigation;
+
+import com.badlogic.gdx.math.Vector2;
+
+/** An integration field over an {@link OccupancyGrid} holding the number of steps from every cell to a destination. Any number of
+ * agents can sample the direction toward the destination in constant time with {@link #getDirection(float, float, Vector2)}.
+ *
+ * Obstacles are only ever removed during a match so the field is updated incrementally with {@link #open(int)} instead of being
+ * recomputed. */
+public class FlowField {
+
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private static final int[] NEIGHBOR_X = {1, -1, 0, 0, 1, 1, -1, -1};
+	private static final int[] NEIGHBOR_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+
+	private final OccupancyGrid grid;
+	private final int destination;
+	private final float destinationX;
+	private final float destinationY;
+
+	private int[] cost;
+	private int[] queue;
+
+	public FlowField (OccupancyGrid grid, float destinationX, float destinationY) {
+		this.grid = grid;
+		this.destinationX = destinationX;
+		this.destinationY = destinationY;
+		this.destination = grid.getClampedCell(destinationX, destinationY);
+		compute();
+	}
+
+	/** Recomputes the whole field with a breadth first search from the destination */
+	public void compute () {
+		int cellCount = grid.getCellCount();
+		if (cost == null || cost.length != cellCount) {
+			cost = new int[cellCount];
+			queue = new int[cellCount];
+		}
+
+		for (int i = 0; i < cellCount; i++)
+			cost[i] = UNREACHABLE;
+
+		cost[destination] = 0;
+		queue[0] = destination;
+		propagate(0, 1);
+	}
+
+	/** Updates the field after a cell became passable. Only the cells whose distance decreased are visited. */
+	public void open (int cell) {
+		if (grid.isBlocked(cell)) return;
+
+		int best = UNREACHABLE;
+		int column = grid.getColumn(cell);
+		int row = grid.getRow(cell);
+		for (int i = 0; i < 4; i++) {
+			int neighbor = getNeighbor(column, row, i);
+			if (neighbor != OccupancyGrid.OUTSIDE && cost[neighbor] < best) best = cost[neighbor];
+		}
+		if (best == UNREACHABLE || best + 1 >= cost[cell]) return;
+
+		cost[cell] = best + 1;
+		queue[0] = cell;
+		propagate(0, 1);
+	}
+
+	/** Relaxes the 4-connected neighbors of the queued cells. Costs are uniform so every cell is queued at most once. */
+	private void propagate (int head, int tail) {
+		while (head < tail) {
+			int current = queue[head++];
+			int column = grid.getColumn(current);
+			int row = grid.getRow(current);
+			int nextCost = cost[current] + 1;
+
+			for (int i = 0; i < 4; i++) {
+				int neighbor = getNeighbor(column, row, i);
+				if (neighbor == OccupancyGrid.OUTSIDE || grid.isBlocked(neighbor)) continue;
+				if (cost[neighbor] <= nextCost) continue;
+
+				cost[neighbor] = nextCost;
+				queue[tail++] = neighbor;
+			}
+		}
+	}
+
+	private int getNeighbor (int column, int row, int direction) {
+		int x = column + NEIGHBOR_X[direction];
+		int y = row + NEIGHBOR_Y[direction];
+		if (x < 0 || y < 0 || x >= grid.getColumns() || y >= grid.getRows()) return OccupancyGrid.OUTSIDE;
+		return y * grid.getColumns() + x;
+	}
+
+	/** Samples the direction toward the destination. Positions outside of the grid head straight for the destination.
+	 * @param out receives the normalized direction, zero once the destination cell is reached
+	 * @return the out vector */
+	public Vector2 getDirection (float x, float y, Vector2 out) {
+		int cell = grid.getCell(x, y);
+		if (cell == OccupancyGrid.OUTSIDE) return out.set(destinationX - x, destinationY - y).nor();
+		if (cell == destination) return out.setZero();
+
+		int column = grid.getColumn(cell);
+		int row = grid.getRow(cell);
+		int best = cost[cell];
+		int bestCell = OccupancyGrid.OUTSIDE;
+
+		for (int i = 0; i < 8; i++) {
+			int neighbor = getNeighbor(column, row, i);
+			if (neighbor == OccupancyGrid.OUTSIDE || cost[neighbor] >= best) continue;
+
+			// Diagonal moves may not cut the corner of a blocked cell
+			if (i >= 4 && (grid.isBlocked(column + NEIGHBOR_X[i], row) || grid.isBlocked(column, row + NEIGHBOR_Y[i]))) continue;
+
+			best = cost[neighbor];
+			bestCell = neighbor;
+		}
+
+		if (bestCell == OccupancyGrid.OUTSIDE) return out.set(destinationX - x, destinationY - y).nor();
+		return out.set(grid.getCenterX(bestCell) - x, grid.getCenterY(bestCell) - y).nor();
+	}
+
+	/** @return the number of steps from the cell to the destination or {@link #UNREACHABLE} */
+	public int getCost (int cell) {
+		return cost[cell];
+	}
+
+	public float getDestinationX () {
+		return destinationX;
+	}
+
+	public float getDestinationY () {
+		return destinationY;
+	}
+
+}
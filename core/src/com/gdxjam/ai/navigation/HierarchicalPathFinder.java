@@ -0,0 +1,519 @@
+package com.gdxjam.ai.navigation;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntMap.Entries;
+
+/** Finds paths over an {@link OccupancyGrid} in two levels. The grid is divided into square chunks that are linked when any pair
+ * of passable cells touches across their border. A search over the chunks yields a corridor that is cached by its source and
+ * destination chunk, then an A* search over the cells inside the corridor produces the actual path. When cells change only the
+ * links of their chunks are rebuilt and only the corridors passing through them are dropped.
+ *
+ * Requests are queued and searched incrementally by {@link #update(int)} so a large number of orders issued in the same frame
+ * never expands more nodes than the given budget. */
+public class HierarchicalPathFinder {
+
+	/** Number of cells along each side of a chunk */
+	public static final int CHUNK_SIZE = 16;
+
+	private static final int STRAIGHT_COST = 10;
+	private static final int DIAGONAL_COST = 14;
+
+	/** Distance in cells searched around a blocked destination for a passable cell */
+	private static final int DESTINATION_SEARCH_RADIUS = 8;
+
+	private static final int[] NEIGHBOR_X = {1, -1, 0, 0, 1, 1, -1, -1};
+	private static final int[] NEIGHBOR_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+
+	private static final IntArray UNREACHABLE = new IntArray(0);
+
+	private final OccupancyGrid grid;
+
+	// Chunk graph, each chunk holds a bit per linked neighbor in the order of the first four neighbor offsets
+	private int chunkColumns;
+	private int chunkRows;
+	private int[] chunkLinks = new int[0];
+	private int[] chunkParent = new int[0];
+	private int[] chunkQueue = new int[0];
+	private boolean graphDirty = true;
+	private IntMap<IntArray> corridors = new IntMap<IntArray>();
+
+	// Chunks whose cells changed since the graph was last updated, marked with the current dirty stamp
+	private IntArray dirtyChunks = new IntArray();
+	private int[] dirtyMark = new int[0];
+	private int dirtyStamp = 1;
+
+	// Cell search state, entries are only valid when their stamp matches the current generation
+	private int[] cost = new int[0];
+	private int[] parent = new int[0];
+	private int[] visited = new int[0];
+	private int[] closed = new int[0];
+	private int generation = 0;
+
+	private int[] corridorMark = new int[0];
+	private int corridorStamp = 0;
+	private boolean restricted;
+
+	// Binary heap of cells ordered by estimated total cost. Improved cells are pushed again and stale entries skipped.
+	private int[] heapCells = new int[64];
+	private int[] heapKeys = new int[64];
+	private int heapSize = 0;
+
+	private Array<PathRequest> queue = new Array<PathRequest>();
+	private PathRequest current;
+	private int startCell;
+	private int goalCell;
+	private IntArray cells = new IntArray();
+
+	public HierarchicalPathFinder (OccupancyGrid grid) {
+		this.grid = grid;
+	}
+
+	/** Queues a path search. A request that is already queued or being searched restarts with the new end points. */
+	public void request (PathRequest request, float startX, float startY, float endX, float endY) {
+		request.reset();
+		request.startX = startX;
+		request.startY = startY;
+		request.endX = endX;
+		request.endY = endY;
+		request.status = PathRequest.PENDING;
+
+		if (request == current) current = null;
+		if (!request.queued) {
+			request.queued = true;
+			queue.add(request);
+		}
+	}
+
+	/** Marks the whole chunk graph and every cached corridor as stale */
+	public void invalidate () {
+		graphDirty = true;
+	}
+
+	/** Marks the chunks of the changed cells as stale, the rest of the graph and the corridors avoiding them are kept
+	 * @param changedCells the cells of the occupancy grid that were blocked or opened */
+	public void invalidate (IntArray changedCells) {
+		// A full rebuild is pending anyway
+		if (graphDirty) return;
+
+		for (int i = 0; i < changedCells.size; i++) {
+			int chunk = getChunk(changedCells.get(i));
+			if (dirtyMark[chunk] == dirtyStamp) continue;
+			dirtyMark[chunk] = dirtyStamp;
+			dirtyChunks.add(chunk);
+		}
+	}
+
+	/** Drops every queued request and the search in progress. Must be called when the occupancy grid is resized. */
+	public void clear () {
+		for (int i = 0; i < queue.size; i++) {
+			PathRequest request = queue.get(i);
+			request.queued = false;
+			request.status = PathRequest.FAILED;
+		}
+		queue.clear();
+		if (current != null) current.status = PathRequest.FAILED;
+		current = null;
+		graphDirty = true;
+	}
+
+	/** Searches queued requests until the budget is spent.
+	 * @param budget the maximum number of cells expanded */
+	public void update (int budget) {
+		while (budget > 0) {
+			if (current == null && !poll()) return;
+			if (current == null) continue;
+
+			// The owner abandoned the request while it was searched
+			if (current.status != PathRequest.PENDING) {
+				current = null;
+				continue;
+			}
+			budget = search(budget);
+		}
+	}
+
+	private boolean poll () {
+		while (queue.size > 0) {
+			PathRequest request = queue.removeIndex(0);
+			request.queued = false;
+			if (request.status == PathRequest.PENDING) {
+				begin(request);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void begin (PathRequest request) {
+		current = request;
+		if (graphDirty)
+			buildGraph();
+		else if (dirtyChunks.size > 0) updateGraph();
+		ensureCapacity();
+
+		startCell = grid.getClampedCell(request.startX, request.startY);
+		goalCell = findPassable(grid.getClampedCell(request.endX, request.endY));
+		if (goalCell == OccupancyGrid.OUTSIDE) {
+			fail();
+			return;
+		}
+
+		IntArray corridor = getCorridor(getChunk(startCell), getChunk(goalCell));
+		if (corridor == UNREACHABLE) {
+			fail();
+			return;
+		}
+
+		corridorStamp++;
+		for (int i = 0; i < corridor.size; i++)
+			corridorMark[corridor.get(i)] = corridorStamp;
+		restricted = true;
+		startSearch();
+	}
+
+	private void startSearch () {
+		generation++;
+		heapSize = 0;
+		cost[startCell] = 0;
+		parent[startCell] = OccupancyGrid.OUTSIDE;
+		visited[startCell] = generation;
+		push(startCell, heuristic(startCell));
+	}
+
+	/** @return the remaining budget */
+	private int search (int budget) {
+		while (heapSize > 0 && budget > 0) {
+			int cell = pop();
+			if (closed[cell] == generation) continue;
+			closed[cell] = generation;
+			budget--;
+
+			if (cell == goalCell) {
+				finish();
+				return budget;
+			}
+			expand(cell);
+		}
+
+		if (heapSize == 0) {
+			// A chunk can be split by obstacles so the corridor may not contain a path, retry on the whole grid
+			if (restricted) {
+				restricted = false;
+				startSearch();
+			} else {
+				fail();
+			}
+		}
+		return budget;
+	}
+
+	private void expand (int cell) {
+		int columns = grid.getColumns();
+		int column = grid.getColumn(cell);
+		int row = grid.getRow(cell);
+
+		for (int i = 0; i < 8; i++) {
+			int x = column + NEIGHBOR_X[i];
+			int y = row + NEIGHBOR_Y[i];
+			if (x < 0 || y < 0 || x >= columns || y >= grid.getRows()) continue;
+
+			int neighbor = y * columns + x;
+			if (!isOpen(neighbor)) continue;
+
+			// Diagonal moves may not cut the corner of a blocked cell
+			if (i >= 4 && (!isOpen(row * columns + x) || !isOpen(y * columns + column))) continue;
+
+			int newCost = cost[cell] + (i < 4 ? STRAIGHT_COST : DIAGONAL_COST);
+			if (visited[neighbor] == generation && newCost >= cost[neighbor]) continue;
+
+			visited[neighbor] = generation;
+			cost[neighbor] = newCost;
+			parent[neighbor] = cell;
+			push(neighbor, newCost + heuristic(neighbor));
+		}
+	}
+
+	private boolean isOpen (int cell) {
+		if (grid.isBlocked(cell) && cell != startCell) return false;
+		return !restricted || corridorMark[getChunk(cell)] == corridorStamp;
+	}
+
+	/** Octile distance to the goal */
+	private int heuristic (int cell) {
+		int dx = Math.abs(grid.getColumn(cell) - grid.getColumn(goalCell));
+		int dy = Math.abs(grid.getRow(cell) - grid.getRow(goalCell));
+		return STRAIGHT_COST * (dx + dy) + (DIAGONAL_COST - 2 * STRAIGHT_COST) * Math.min(dx, dy);
+	}
+
+	/** Stores the path as waypoints, keeping only the cells where it changes direction */
+	private void finish () {
+		cells.clear();
+		for (int cell = goalCell; cell != OccupancyGrid.OUTSIDE; cell = parent[cell])
+			cells.add(cell);
+		cells.reverse();
+
+		PathRequest request = current;
+		request.waypoints.clear();
+		for (int i = 1; i < cells.size - 1; i++) {
+			int cell = cells.get(i);
+			if (cell - cells.get(i - 1) != cells.get(i + 1) - cell) request.addWaypoint(grid.getCenterX(cell), grid.getCenterY(cell));
+		}
+
+		if (goalCell == grid.getClampedCell(request.endX, request.endY))
+			request.addWaypoint(request.endX, request.endY);
+		else
+			request.addWaypoint(grid.getCenterX(goalCell), grid.getCenterY(goalCell));
+
+		request.next = 0;
+		request.status = PathRequest.FOUND;
+		current = null;
+	}
+
+	private void fail () {
+		current.status = PathRequest.FAILED;
+		current = null;
+	}
+
+	/** @return the closest passable cell within {@link #DESTINATION_SEARCH_RADIUS} or {@link OccupancyGrid#OUTSIDE} */
+	private int findPassable (int cell) {
+		if (!grid.isBlocked(cell)) return cell;
+
+		int column = grid.getColumn(cell);
+		int row = grid.getRow(cell);
+		for (int radius = 1; radius <= DESTINATION_SEARCH_RADIUS; radius++) {
+			int minX = Math.max(0, column - radius);
+			int maxX = Math.min(grid.getColumns() - 1, column + radius);
+			int minY = Math.max(0, row - radius);
+			int maxY = Math.min(grid.getRows() - 1, row + radius);
+			for (int y = minY; y <= maxY; y++) {
+				for (int x = minX; x <= maxX; x++) {
+					// Only the ring at the current radius
+					if (Math.abs(x - column) != radius && Math.abs(y - row) != radius) continue;
+					if (!grid.isBlocked(x, y)) return y * grid.getColumns() + x;
+				}
+			}
+		}
+		return OccupancyGrid.OUTSIDE;
+	}
+
+	private int getChunk (int cell) {
+		return (grid.getRow(cell) / CHUNK_SIZE) * chunkColumns + grid.getColumn(cell) / CHUNK_SIZE;
+	}
+
+	private void buildGraph () {
+		int columns = grid.getColumns();
+		int rows = grid.getRows();
+		chunkColumns = MathUtils.ceil(columns / (float)CHUNK_SIZE);
+		chunkRows = MathUtils.ceil(rows / (float)CHUNK_SIZE);
+
+		int chunkCount = chunkColumns * chunkRows;
+		if (chunkLinks.length != chunkCount) {
+			chunkLinks = new int[chunkCount];
+			chunkParent = new int[chunkCount];
+			chunkQueue = new int[chunkCount];
+			dirtyMark = new int[chunkCount];
+		}
+
+		for (int chunk = 0; chunk < chunkCount; chunk++)
+			chunkLinks[chunk] = 0;
+
+		for (int chunkY = 0; chunkY < chunkRows; chunkY++) {
+			for (int chunkX = 0; chunkX < chunkColumns; chunkX++)
+				linkChunk(chunkX, chunkY);
+		}
+
+		corridors.clear();
+		clearDirtyChunks();
+		graphDirty = false;
+	}
+
+	/** Relinks the borders of the dirty chunks and drops the corridors through them. Corridors elsewhere stay valid, they may only
+	 * miss a shortcut that was opened, which the cell search does not depend on. */
+	private void updateGraph () {
+		// Every link of a dirty chunk is cleared first so a neighbor relinked later is not overwritten
+		for (int i = 0; i < dirtyChunks.size; i++) {
+			int chunk = dirtyChunks.get(i);
+			int chunkX = chunk % chunkColumns;
+			int chunkY = chunk / chunkColumns;
+			chunkLinks[chunk] = 0;
+			if (chunkX + 1 < chunkColumns) chunkLinks[chunk + 1] &= ~(1 << 1);
+			if (chunkX > 0) chunkLinks[chunk - 1] &= ~(1 << 0);
+			if (chunkY + 1 < chunkRows) chunkLinks[chunk + chunkColumns] &= ~(1 << 3);
+			if (chunkY > 0) chunkLinks[chunk - chunkColumns] &= ~(1 << 2);
+		}
+
+		for (int i = 0; i < dirtyChunks.size; i++) {
+			int chunk = dirtyChunks.get(i);
+			int chunkX = chunk % chunkColumns;
+			int chunkY = chunk / chunkColumns;
+			linkChunk(chunkX, chunkY);
+			if (chunkX > 0) linkChunk(chunkX - 1, chunkY);
+			if (chunkY > 0) linkChunk(chunkX, chunkY - 1);
+		}
+
+		Entries<IntArray> entries = corridors.entries();
+		while (entries.hasNext()) {
+			IntArray corridor = entries.next().value;
+			// An opened cell may have linked chunks that were unreachable before
+			if (corridor == UNREACHABLE || passesDirtyChunk(corridor)) entries.remove();
+		}
+		clearDirtyChunks();
+	}
+
+	/** Links the chunk to the chunks on its right and above when a pair of passable cells touches across the border */
+	private void linkChunk (int chunkX, int chunkY) {
+		int columns = grid.getColumns();
+		int rows = grid.getRows();
+		int chunk = chunkY * chunkColumns + chunkX;
+		int minX = chunkX * CHUNK_SIZE;
+		int minY = chunkY * CHUNK_SIZE;
+		int maxX = Math.min(columns, minX + CHUNK_SIZE) - 1;
+		int maxY = Math.min(rows, minY + CHUNK_SIZE) - 1;
+
+		// Link to the chunk on the right
+		if (maxX + 1 < columns) {
+			for (int y = minY; y <= maxY; y++) {
+				if (!grid.isBlocked(maxX, y) && !grid.isBlocked(maxX + 1, y)) {
+					chunkLinks[chunk] |= 1 << 0;
+					chunkLinks[chunk + 1] |= 1 << 1;
+					break;
+				}
+			}
+		}
+
+		// Link to the chunk above
+		if (maxY + 1 < rows) {
+			for (int x = minX; x <= maxX; x++) {
+				if (!grid.isBlocked(x, maxY) && !grid.isBlocked(x, maxY + 1)) {
+					chunkLinks[chunk] |= 1 << 2;
+					chunkLinks[chunk + chunkColumns] |= 1 << 3;
+					break;
+				}
+			}
+		}
+	}
+
+	private boolean passesDirtyChunk (IntArray corridor) {
+		for (int i = 0; i < corridor.size; i++) {
+			if (dirtyMark[corridor.get(i)] == dirtyStamp) return true;
+		}
+		return false;
+	}
+
+	private void clearDirtyChunks () {
+		dirtyChunks.clear();
+		dirtyStamp++;
+	}
+
+	/** @return the chunks between the source and destination chunk, or {@link #UNREACHABLE} */
+	private IntArray getCorridor (int from, int to) {
+		int key = from * chunkLinks.length + to;
+		IntArray corridor = corridors.get(key);
+		if (corridor == null) {
+			corridor = findCorridor(from, to);
+			corridors.put(key, corridor);
+		}
+		return corridor;
+	}
+
+	/** Breadth first search over the chunk graph. Links have a uniform cost so it yields the same corridor as A*. */
+	private IntArray findCorridor (int from, int to) {
+		for (int i = 0; i < chunkParent.length; i++)
+			chunkParent[i] = -1;
+
+		int head = 0;
+		int tail = 0;
+		chunkQueue[tail++] = from;
+		chunkParent[from] = from;
+
+		while (head < tail) {
+			int chunk = chunkQueue[head++];
+			if (chunk == to) {
+				IntArray corridor = new IntArray();
+				for (int c = to; c != from; c = chunkParent[c])
+					corridor.add(c);
+				corridor.add(from);
+				corridor.reverse();
+				return corridor;
+			}
+
+			int chunkX = chunk % chunkColumns;
+			int chunkY = chunk / chunkColumns;
+			int links = chunkLinks[chunk];
+			for (int i = 0; i < 4; i++) {
+				if ((links & (1 << i)) == 0) continue;
+				int neighbor = (chunkY + NEIGHBOR_Y[i]) * chunkColumns + chunkX + NEIGHBOR_X[i];
+				if (chunkParent[neighbor] != -1) continue;
+				chunkParent[neighbor] = chunk;
+				chunkQueue[tail++] = neighbor;
+			}
+		}
+		return UNREACHABLE;
+	}
+
+	private void ensureCapacity () {
+		int cellCount = grid.getCellCount();
+		if (cost.length != cellCount) {
+			cost = new int[cellCount];
+			parent = new int[cellCount];
+			visited = new int[cellCount];
+			closed = new int[cellCount];
+			generation = 0;
+		}
+		if (corridorMark.length != chunkLinks.length) {
+			corridorMark = new int[chunkLinks.length];
+			corridorStamp = 0;
+		}
+	}
+
+	private void push (int cell, int key) {
+		if (heapSize == heapCells.length) {
+			int[] newCells = new int[heapSize << 1];
+			int[] newKeys = new int[heapSize << 1];
+			System.arraycopy(heapCells, 0, newCells, 0, heapSize);
+			System.arraycopy(heapKeys, 0, newKeys, 0, heapSize);
+			heapCells = newCells;
+			heapKeys = newKeys;
+		}
+
+		int index = heapSize++;
+		while (index > 0) {
+			int parentIndex = (index - 1) >> 1;
+			if (heapKeys[parentIndex] <= key) break;
+			heapCells[index] = heapCells[parentIndex];
+			heapKeys[index] = heapKeys[parentIndex];
+			index = parentIndex;
+		}
+		heapCells[index] = cell;
+		heapKeys[index] = key;
+	}
+
+	private int pop () {
+		int result = heapCells[0];
+		int cell = heapCells[--heapSize];
+		int key = heapKeys[heapSize];
+
+		int index = 0;
+		while (true) {
+			int child = (index << 1) + 1;
+			if (child >= heapSize) break;
+			if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) child++;
+			if (heapKeys[child] >= key) break;
+			heapCells[index] = heapCells[child];
+			heapKeys[index] = heapKeys[child];
+			index = child;
+		}
+		heapCells[index] = cell;
+		heapKeys[index] = key;
+		return result;
+	}
+
+	/** @return the number of requests waiting to be searched */
+	public int getQueuedCount () {
+		return queue.size + (current != null ? 1 : 0);
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.gdxjam.ai.navigation;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
+
+/** A coarse grid of the world marking the cells covered by asteroids. Each cell counts the obstacles overlapping it so that
+ * asteroids can be removed in any order. Cells are addressed by a single index of {@code row * columns + column}. */
+public class OccupancyGrid {
+
+	public static final int OUTSIDE = -1;
+
+	private float cellSize;
+	private float clearance;
+	private int columns;
+	private int rows;
+	private int[] blockers;
+
+	/** @param clearance extra space kept around every obstacle so agents do not graze it */
+	public OccupancyGrid (float width, float height, float cellSize, float clearance) {
+		this.clearance = clearance;
+		resize(width, height, cellSize);
+	}
+
+	public void resize (float width, float height, float cellSize) {
+		this.cellSize = cellSize;
+		columns = Math.max(1, MathUtils.ceil(width / cellSize));
+		rows = Math.max(1, MathUtils.ceil(height / cellSize));
+		blockers = new int[columns * rows];
+	}
+
+	/** Marks the cells covered by a circular obstacle.
+	 * @param changed if not null receives the cells that became blocked */
+	public void block (float x, float y, float radius, IntArray changed) {
+		modify(x, y, radius, 1, changed);
+	}
+
+	/** Removes a circular obstacle that was previously added with {@link #block(float, float, float, IntArray)}.
+	 * @param changed if not null receives the cells that became passable */
+	public void unblock (float x, float y, float radius, IntArray changed) {
+		modify(x, y, radius, -1, changed);
+	}
+
+	private void modify (float x, float y, float radius, int amount, IntArray changed) {
+		float extent = radius + clearance;
+		int minX = MathUtils.clamp((int)((x - extent) / cellSize), 0, columns - 1);
+		int maxX = MathUtils.clamp((int)((x + extent) / cellSize), 0, columns - 1);
+		int minY = MathUtils.clamp((int)((y - extent) / cellSize), 0, rows - 1);
+		int maxY = MathUtils.clamp((int)((y + extent) / cellSize), 0, rows - 1);
+
+		// A cell is covered when the obstacle reaches the closest point of the cell
+		for (int row = minY; row <= maxY; row++) {
+			for (int column = minX; column <= maxX; column++) {
+				float closestX = MathUtils.clamp(x, column * cellSize, (column + 1) * cellSize);
+				float closestY = MathUtils.clamp(y, row * cellSize, (row + 1) * cellSize);
+				float dx = closestX - x;
+				float dy = closestY - y;
+				if (dx * dx + dy * dy > extent * extent) continue;
+
+				int cell = row * columns + column;
+				int previous = blockers[cell];
+				blockers[cell] = Math.max(0, previous + amount);
+				if (changed != null && (previous == 0) != (blockers[cell] == 0)) changed.add(cell);
+			}
+		}
+	}
+
+	public void clear () {
+		for (int i = 0; i < blockers.length; i++)
+			blockers[i] = 0;
+	}
+
+	/** @return the index of the cell containing the position or {@link #OUTSIDE} */
+	public int getCell (float x, float y) {
+		if (x < 0 || y < 0) return OUTSIDE;
+		int column = (int)(x / cellSize);
+		int row = (int)(y / cellSize);
+		if (column >= columns || row >= rows) return OUTSIDE;
+		return row * columns + column;
+	}
+
+	/** @return the index of the cell closest to the position */
+	public int getClampedCell (float x, float y) {
+		int column = MathUtils.clamp((int)(x / cellSize), 0, columns - 1);
+		int row = MathUtils.clamp((int)(y / cellSize), 0, rows - 1);
+		return row * columns + column;
+	}
+
+	public boolean isBlocked (int cell) {
+		return blockers[cell] > 0;
+	}
+
+	public boolean isBlocked (int column, int row) {
+		return blockers[row * columns + column] > 0;
+	}
+
+	public int getColumn (int cell) {
+		return cell % columns;
+	}
+
+	public int getRow (int cell) {
+		return cell / columns;
+	}
+
+	public float getCenterX (int cell) {
+		return (getColumn(cell) + 0.5f) * cellSize;
+	}
+
+	public float getCenterY (int cell) {
+		return (getRow(cell) + 0.5f) * cellSize;
+	}
+
+	public int getColumns () {
+		return columns;
+	}
+
+	public int getRows () {
+		return rows;
+	}
+
+	public int getCellCount () {
+		return columns * rows;
+	}
+
+	public float getCellSize () {
+		return cellSize;
+	}
+
+}
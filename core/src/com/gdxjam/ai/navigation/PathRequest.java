@@ -0,0 +1,53 @@
+package com.gdxjam.ai.navigation;
+
+import com.badlogic.gdx.utils.FloatArray;
+
+/** A path queued on a {@link HierarchicalPathFinder} together with the state needed to follow it. Requests are owned by the agent
+ * and reused for every order it receives. */
+public class PathRequest {
+
+	public static final int NONE = 0;
+	public static final int PENDING = 1;
+	public static final int FOUND = 2;
+	public static final int FAILED = 3;
+
+	public float startX;
+	public float startY;
+	public float endX;
+	public float endY;
+
+	public int status = NONE;
+
+	/** The waypoints as x, y pairs. The last waypoint is the requested end position. */
+	public final FloatArray waypoints = new FloatArray();
+
+	/** Index of the waypoint currently being followed */
+	public int next = 0;
+
+	boolean queued = false;
+
+	public void addWaypoint (float x, float y) {
+		waypoints.add(x);
+		waypoints.add(y);
+	}
+
+	public int getWaypointCount () {
+		return waypoints.size / 2;
+	}
+
+	public float getWaypointX (int index) {
+		return waypoints.get(index * 2);
+	}
+
+	public float getWaypointY (int index) {
+		return waypoints.get(index * 2 + 1);
+	}
+
+	/** Abandons the request. A pending search is dropped the next time the path finder reaches it. */
+	public void reset () {
+		status = NONE;
+		waypoints.clear();
+		next = 0;
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.gdxjam.ai.state;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.ai.fsm.DefaultStateMachine;
+
+/** A {@link DefaultStateMachine} that can be handed to a new owner so pooled components keep a single instance */
+public class EntityStateMachine extends DefaultStateMachine<Entity> {
+
+	public EntityStateMachine () {
+		super(null);
+	}
+
+	/** Clears every state without calling their exit methods and assigns the new owner */
+	public void reset (Entity owner) {
+		this.owner = owner;
+		this.currentState = null;
+		this.previousState = null;
+		this.globalState = null;
+	}
+
+}
@@ -4,15 +4,14 @@ package com.gdxjam.ai.state;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.ai.fsm.State;
 import com.badlogic.gdx.ai.msg.Telegram;
-import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
-import com.badlogic.gdx.ai.steer.behaviors.Evade;
-import com.badlogic.gdx.ai.steer.behaviors.Pursue;
-import com.badlogic.gdx.ai.steer.behaviors.Wander;
-import com.badlogic.gdx.math.Vector2;
+import com.gdxjam.GameManager;
+import com.gdxjam.ai.steer.SquadSteering;
+import com.gdxjam.components.FSMComponent;
 import com.gdxjam.components.FactionComponent.Faction;
 import com.gdxjam.components.SquadComponent;
 import com.gdxjam.components.SteerableComponent;
 import com.gdxjam.ecs.Components;
+import com.gdxjam.systems.TargetingSystem;
 import com.gdxjam.utils.Constants;
 
 public enum SquadCombatState implements State<Entity> {
@@ -20,10 +19,9 @@ public enum SquadCombatState implements State<Entity> {
 	IDLE() {
 		@Override
 		public void enter (Entity entity) {
-			SquadComponent squadComp = Components.SQUAD.get(entity);
-
-			if (squadComp.enemiesTracked.size > 0) {
-				Components.TARGET.get(entity).setTarget(squadComp.enemiesTracked.random());
+			Entity target = getTargeting().selectSquad(entity);
+			if (target != null) {
+				Components.TARGET.get(entity).setTarget(target);
 
 				// Set the squads state to a combat state depending on if were the player
 				Faction faction = Components.FACTION.get(entity).getFaction();
@@ -34,13 +32,12 @@ public enum SquadCombatState implements State<Entity> {
 
 		@Override
 		public boolean onMessage (Entity entity, Telegram telegram) {
-			SquadComponent squadComp = Components.SQUAD.get(entity);
-
-			TelegramMessage telegramMsg = TelegramMessage.values()[telegram.message];
+			TelegramMessage telegramMsg = TelegramMessage.get(telegram.message);
 			switch (telegramMsg) {
 			case DISCOVERED_ENEMY:
-				
-				Components.TARGET.get(entity).setTarget(squadComp.enemiesTracked.random());
+				Entity target = getTargeting().selectSquad(entity);
+				if (target == null) return true;
+				Components.TARGET.get(entity).setTarget(target);
 
 				if (Components.FACTION.get(entity).getFaction() != Constants.playerFaction)
 					Components.FSM.get(entity).changeState(SquadCombatState.AI_AGRESSIVE);
@@ -49,6 +46,10 @@ public enum SquadCombatState implements State<Entity> {
 
 				return true;
 
+			case RESOURCE_DEPLETED:
+				Components.SQUAD.get(entity).untrack(entity, (Entity)telegram.extraInfo);
+				return true;
+
 			default:
 				return false;
 			}
@@ -65,16 +66,9 @@ public enum SquadCombatState implements State<Entity> {
 			Entity targetSquad = Components.TARGET.get(entity).getTarget();
 			SteerableComponent targetSteerable = Components.STEERABLE.get(targetSquad);
 
-			Wander<Vector2> wanderSB = new Wander<Vector2>(steerable).setAlignTolerance(0.1f).setWanderOffset(2.5f)
-				.setWanderOrientation(0).setWanderRate(2.5f);
-
-			Pursue<Vector2> pursueSB = new Pursue<Vector2>(steerable, targetSteerable).setMaxPredictionTime(0.1f);
-
-			BlendedSteering<Vector2> blendSB = new BlendedSteering<Vector2>(steerable);
-			blendSB.add(wanderSB, 0.8f);
-			blendSB.add(pursueSB, 1.0f);
-
-			Components.STEERING_BEHAVIOR.get(entity).setBehavior(blendSB);
+			// Wander blended with pursuit of the target squad
+			SquadSteering steering = Components.SQUAD.get(entity).getSteering();
+			Components.STEERING_BEHAVIOR.get(entity).setBehavior(steering.aggressive(steerable, targetSteerable));
 		}
 
 		@Override
@@ -94,16 +88,8 @@ public enum SquadCombatState implements State<Entity> {
 			SteerableComponent targetSteerable = Components.STEERABLE.get(targetSquad);
 			SteerableComponent steerable = Components.STEERABLE.get(entity);
 
-			Wander<Vector2> wanderSB = new Wander<Vector2>(steerable).setAlignTolerance(0.1f).setWanderOffset(2.5f)
-				.setWanderOrientation(0).setWanderRate(2.5f);
-
-			Evade<Vector2> evadeSB = new Evade<Vector2>(steerable, targetSteerable, 0.1f);
-
-			BlendedSteering<Vector2> blendSB = new BlendedSteering<Vector2>(steerable);
-			blendSB.add(wanderSB, 0.8f);
-			blendSB.add(evadeSB, 1.0f);
-
-			Components.STEERING_BEHAVIOR.get(entity).setBehavior(evadeSB);
+			SquadSteering steering = Components.SQUAD.get(entity).getSteering();
+			Components.STEERING_BEHAVIOR.get(entity).setBehavior(steering.defensive(steerable, targetSteerable));
 		}
 
 		@Override
@@ -132,19 +118,32 @@ public enum SquadCombatState implements State<Entity> {
 		return targetSteerable.getPosition().dst(steerable.getPosition());
 	}
 
+	/** Assigns the best scored enemy unit around the unit, falling back on spreading our members over the target squad when no enemy
+	 * unit is in range */
 	public boolean delegateTarget (Entity squad, Entity unit) {
+		Entity targetUnit = getTargeting().selectUnit(squad, unit);
+		if (targetUnit != null) {
+			Components.TARGET.get(unit).setTarget(targetUnit);
+			return true;
+		}
+
 		Entity targetSquad = Components.TARGET.get(squad).getTarget();
+		if (targetSquad == null) return false;
 		SquadComponent targetSquadComp = Components.SQUAD.get(targetSquad);
 		SquadComponent squadComp = Components.SQUAD.get(squad);
 
 		if (targetSquadComp.members.size <= 0) return false;
 
 		int index = squadComp.members.indexOf(unit, true);
-		Entity targetUnit = targetSquadComp.members.get(index % targetSquadComp.members.size);
+		targetUnit = targetSquadComp.members.get(index % targetSquadComp.members.size);
 		Components.TARGET.get(unit).setTarget(targetUnit);
 		return true;
 	}
 
+	private static TargetingSystem getTargeting () {
+		return GameManager.getEngine().getSystem(TargetingSystem.class);
+	}
+
 	/** Default enter behavior for a SquadCombatState */
 	@Override
 	public void enter (Entity entity) {
@@ -170,14 +169,18 @@ public enum SquadCombatState implements State<Entity> {
 	public boolean onMessage (Entity entity, Telegram telegram) {
 		SquadComponent squadComp = Components.SQUAD.get(entity);
 
-		TelegramMessage telegramMsg = TelegramMessage.values()[telegram.message];
+		TelegramMessage telegramMsg = TelegramMessage.get(telegram.message);
 		switch (telegramMsg) {
 
 		/** If we have found a new target we need to assess its threat level to decide if we need to switch targets. */
 		case DISCOVERED_ENEMY:
-
-			// TODO assess threat level of new targets
-
+			Entity target = getTargeting().selectSquad(entity);
+			if (target != null && target != Components.TARGET.get(entity).getTarget()) {
+				Components.TARGET.get(entity).setTarget(target);
+				// Entering the state again binds the steering behaviors and the members to the new target
+				FSMComponent fsm = Components.FSM.get(entity);
+				fsm.changeState(fsm.getStateMachine().getCurrentState());
+			}
 			return true;
 
 		case TARGET_REQUEST: {
@@ -191,6 +194,10 @@ public enum SquadCombatState implements State<Entity> {
 			Components.FSM.get(entity).changeState(IDLE);
 			return true;
 
+		case RESOURCE_DEPLETED:
+			squadComp.untrack(entity, (Entity)telegram.extraInfo);
+			return true;
+
 			/** If the construction system has confirmed that it was able to create a new unit for us we need to tell that unit what
 			 * we are currently doing and tell it to do the same */
 		case CONSTRUCT_UNIT_CONFRIM:
@@ -5,6 +5,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.ai.fsm.State;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.gdxjam.components.SquadComponent;
+import com.gdxjam.components.TargetComponent;
 import com.gdxjam.ecs.Components;
 
 public enum SquadHarvestState implements State<Entity>{
@@ -27,14 +28,14 @@ public enum SquadHarvestState implements State<Entity>{
 		
 		@Override
 		public boolean onMessage (Entity entity, Telegram telegram) {
-		TelegramMessage telegramMsg = TelegramMessage.values()[telegram.message];
+		TelegramMessage telegramMsg = TelegramMessage.get(telegram.message);
 		switch(telegramMsg){
 		case DISCOVERED_RESOURCE:
 			Components.FSM.get(entity).changeState(HARVEST);
 			return true;
 			
 		default:
-			return false;
+			return super.onMessage(entity, telegram);
 			}
 		}
 	},
@@ -53,7 +54,7 @@ public enum SquadHarvestState implements State<Entity>{
 		@Override
 		public boolean onMessage (Entity entity, Telegram telegram) {
 			SquadComponent squadComp = Components.SQUAD.get(entity);
-			TelegramMessage telegramMsg = TelegramMessage.values()[telegram.message];
+			TelegramMessage telegramMsg = TelegramMessage.get(telegram.message);
 			
 			switch (telegramMsg) {
 			case TARGET_REQUEST:
@@ -72,7 +73,7 @@ public enum SquadHarvestState implements State<Entity>{
 				return true;
 
 			default:
-				return false;
+				return super.onMessage(entity, telegram);
 			}
 		}
 	}
@@ -99,8 +100,24 @@ public enum SquadHarvestState implements State<Entity>{
 
 	@Override
 	public boolean onMessage (Entity entity, Telegram telegram) {
-		// TODO Auto-generated method stub
-		return false;
+		switch (TelegramMessage.get(telegram.message)) {
+		case RESOURCE_DEPLETED:
+			// The members harvesting the resource ask for a new one right away instead of waiting for it to decay
+			Entity resource = (Entity)telegram.extraInfo;
+			SquadComponent squadComp = Components.SQUAD.get(entity);
+			squadComp.untrack(entity, resource);
+			for (int i = 0; i < squadComp.members.size; i++) {
+				Entity member = squadComp.members.get(i);
+				TargetComponent targetComp = Components.TARGET.get(member);
+				if (targetComp.getTarget() != resource) continue;
+				targetComp.setTarget(null);
+				Components.FSM.get(member).changeState(UnitState.FIND_TARGET);
+			}
+			return true;
+
+		default:
+			return false;
+		}
 	}
 
 }
@@ -12,6 +12,9 @@ public enum TelegramMessage {
 	TARGET_REQUEST,
 	TARGET_REMOVED,
 	
+	//Broadcast by the ResourceSystem, the extra info is the depleted resource
+	RESOURCE_DEPLETED,
+	
 	//Unit relevant messages
 	UNIT_ADDED_TO_SQUAD,
 	
@@ -24,4 +27,12 @@ public enum TelegramMessage {
 	
 	;
 
+	// values() clones the array on every call
+	private static final TelegramMessage[] VALUES = values();
+
+	/** @return the message with the given ordinal, as sent in {@link com.badlogic.gdx.ai.msg.Telegram#message} */
+	public static TelegramMessage get (int message) {
+		return VALUES[message];
+	}
+
 }
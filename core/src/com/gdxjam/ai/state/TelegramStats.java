@@ -0,0 +1,30 @@
+package com.gdxjam.ai.state;
+
+import com.badlogic.gdx.ai.msg.Telegram;
+
+/** Counts the telegrams handled by entity state machines for each {@link TelegramMessage} */
+public class TelegramStats {
+
+	private static final int[] counts = new int[TelegramMessage.values().length];
+
+	public static void record (Telegram msg) {
+		if (msg.message >= 0 && msg.message < counts.length) counts[msg.message]++;
+	}
+
+	public static int getCount (TelegramMessage message) {
+		return counts[message.ordinal()];
+	}
+
+	public static int getTotal () {
+		int total = 0;
+		for (int i = 0; i < counts.length; i++)
+			total += counts[i];
+		return total;
+	}
+
+	public static void reset () {
+		for (int i = 0; i < counts.length; i++)
+			counts[i] = 0;
+	}
+
+}
@@ -5,29 +5,22 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.ai.fsm.State;
 import com.badlogic.gdx.ai.msg.MessageManager;
 import com.badlogic.gdx.ai.msg.Telegram;
-import com.badlogic.gdx.ai.steer.Steerable;
-import com.badlogic.gdx.ai.steer.behaviors.Arrive;
-import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
-import com.badlogic.gdx.ai.steer.behaviors.CollisionAvoidance;
-import com.badlogic.gdx.ai.steer.behaviors.Face;
-import com.badlogic.gdx.ai.steer.behaviors.ReachOrientation;
-import com.badlogic.gdx.ai.steer.proximities.RadiusProximity;
+import com.badlogic.gdx.ai.steer.SteeringBehavior;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
+import com.gdxjam.ai.steer.UnitSteering;
 import com.gdxjam.components.FSMComponent;
 import com.gdxjam.components.FactionComponent.Faction;
-import com.gdxjam.components.ResourceComponent;
-import com.gdxjam.components.SquadComponent;
 import com.gdxjam.components.SteerableComponent;
 import com.gdxjam.components.SteeringBehaviorComponent;
 import com.gdxjam.components.TargetComponent;
+import com.gdxjam.components.UnitComponent;
 import com.gdxjam.components.WeaponComponent;
 import com.gdxjam.ecs.Components;
 import com.gdxjam.ecs.EntityCategory;
 import com.gdxjam.utils.Constants;
 import com.gdxjam.utils.EntityFactory;
-import com.gdxjam.utils.Location2;
+import com.gdxjam.utils.EntityUtils;
 
 public enum UnitState implements State<Entity>{
 	
@@ -44,22 +37,11 @@ public enum UnitState implements State<Entity>{
 			if(fsmComp.getStateMachine().getPreviousState() != IDLE){
 				//Now we just follow the formation
 				SteerableComponent steerable = Components.STEERABLE.get(entity);
-				Location2 targetLocation = (Location2)Components.UNIT.get(entity).getTargetLocation();
+				UnitComponent unitComp = Components.UNIT.get(entity);
 				
-				Arrive<Vector2> arriveSB = new Arrive<Vector2>(steerable, targetLocation)
-						.setTimeToTarget(0.001f)
-						.setArrivalTolerance(0.01f)
-						.setDecelerationRadius(2f);
-				
-				ReachOrientation<Vector2> reachOrientationSB = new ReachOrientation<Vector2>(steerable, targetLocation)
-						.setTimeToTarget(0.001f)
-						.setAlignTolerance(0.001f)
-						.setDecelerationRadius(MathUtils.PI);
-				
-				BlendedSteering<Vector2> blendSB = new BlendedSteering<Vector2>(steerable);
-				blendSB.add(arriveSB, 1.0f);
-				blendSB.add(reachOrientationSB, 1.0f);
-				Components.STEERING_BEHAVIOR.get(entity).setBehavior(blendSB);
+				// Arrive at and align with our formation slot
+				SteeringBehavior<Vector2> behavior = unitComp.getSteering().follow(steerable, unitComp.getTargetLocation());
+				Components.STEERING_BEHAVIOR.get(entity).setBehavior(behavior);
 			}
 		}
 	},
@@ -97,30 +79,12 @@ public enum UnitState implements State<Entity>{
 			
 			SteerableComponent steerable = Components.STEERABLE.get(entity);
 			SteerableComponent targetSteerable = Components.STEERABLE.get(target);
-			Entity squad = Components.UNIT.get(entity).getSquad();
-			SquadComponent squadComp = Components.SQUAD.get(squad);
-
-			// Steering behavior
-			Arrive<Vector2> arrive = new Arrive<Vector2>(steerable).setTarget(targetSteerable).setTimeToTarget(0.01f)
-				.setArrivalTolerance(0.001f).setDecelerationRadius(4f);
-
-			Face<Vector2> faceSB = new Face<Vector2>(steerable).setTarget(targetSteerable).setAlignTolerance(0.001f)
-				.setTimeToTarget(0.001f).setDecelerationRadius(2.0f);
-
-			Array<Steerable<Vector2>> collisionAgents = new Array<Steerable<Vector2>>();
-			collisionAgents.addAll(squadComp.resourceAgents);
-			collisionAgents.addAll(Components.SQUAD.get(squad).memberAgents);
-
-			RadiusProximity<Vector2> radiusProximity = new RadiusProximity<Vector2>(steerable, collisionAgents, 0.1f);
-			CollisionAvoidance<Vector2> collisionAvoidanceSB = new CollisionAvoidance<Vector2>(steerable, radiusProximity);
-
-			BlendedSteering<Vector2> blendSB = new BlendedSteering<Vector2>(steerable);
-			blendSB.add(arrive, 1.0f);
-			blendSB.add(faceSB, 1.0f);
-			blendSB.add(collisionAvoidanceSB, 1000.0f);
 
+			// Arrive at and face the resource while avoiding the units and resources around us. The neighbors are looked up in the
+			// spatial index through the units proximity instead of scanning the squads arrays
+			UnitSteering steering = Components.UNIT.get(entity).getSteering();
 			SteeringBehaviorComponent behavior = Components.STEERING_BEHAVIOR.get(entity);
-			behavior.setBehavior(blendSB);
+			behavior.setBehavior(steering.harvest(steerable, targetSteerable));
 		}
 		
 		@Override
@@ -137,8 +101,7 @@ public enum UnitState implements State<Entity>{
 			// If were in position harvest the resource
 			if (targetSteerable.getPosition().dst(steerable.getPosition()) <= targetSteerable.getBoundingRadius()
 				+ Constants.unitRadius * 2.0f) {
-				ResourceComponent targetResourceComp = Components.RESOURCE.get(targetResource);
-				targetResourceComp.value -= Constants.resourceCollectionSpeed;
+				EntityUtils.harvest(targetResource, Constants.resourceCollectionSpeed);
 
 			}
 		}
@@ -154,19 +117,12 @@ public enum UnitState implements State<Entity>{
 			SteerableComponent steerable = Components.STEERABLE.get(entity);
 			TargetComponent targetComp = Components.TARGET.get(entity);
 			SteeringBehaviorComponent behaviorComp = Components.STEERING_BEHAVIOR.get(entity);
-			Location2 targetLocation = (Location2)Components.UNIT.get(entity).getTargetLocation();
-
-			// Steering Behaviors
-			Face<Vector2> faceSB = new Face<Vector2>(steerable).setTarget(Components.STEERABLE.get(targetComp.getTarget()))
-				.setAlignTolerance(0.0001f).setDecelerationRadius(2f).setTimeToTarget(0.00001f);
+			UnitComponent unitComp = Components.UNIT.get(entity);
 
-			Arrive<Vector2> arriveSB = new Arrive<Vector2>(steerable, targetLocation).setTimeToTarget(0.001f)
-				.setArrivalTolerance(0.01f).setDecelerationRadius(2f);
-
-			BlendedSteering<Vector2> blendSB = new BlendedSteering<Vector2>(steerable);
-			blendSB.add(arriveSB, 1.0f);
-			blendSB.add(faceSB, 1.0f);
-			behaviorComp.setBehavior(blendSB);
+			// Hold our formation slot while facing the target
+			SteeringBehavior<Vector2> behavior = unitComp.getSteering().combat(steerable, unitComp.getTargetLocation(),
+				Components.STEERABLE.get(targetComp.getTarget()));
+			behaviorComp.setBehavior(behavior);
 		}
 		
 		@Override
@@ -187,8 +143,8 @@ public enum UnitState implements State<Entity>{
 				SteerableComponent targetSteerable = Components.STEERABLE.get(target);
 
 				// Get the angle between our target and us and our current orientation
-				Vector2 position = steerable.getPosition();
-				Vector2 displacement = targetSteerable.getPosition().cpy().sub(position);
+				Vector2 position = tmpPosition.set(steerable.getPosition());
+				Vector2 displacement = tmpDisplacement.set(targetSteerable.getPosition()).sub(position);
 				float angle = displacement.angleRad();
 				float orientation = steerable.getOrientation();
 
@@ -200,8 +156,8 @@ public enum UnitState implements State<Entity>{
 				// The player unit will have aimbot
 				if(Components.FACTION.get(entity).getFaction() == Constants.playerFaction){
 					float timeStep = displacement.len() / weaponComp.projectileVelocity;
-					Vector2 deltaPosition = steerable.getLinearVelocity().cpy().scl(timeStep);
-					Vector2 perdictedPosition = targetSteerable.getPosition().cpy().add(deltaPosition);
+					Vector2 perdictedPosition = tmpPrediction.set(steerable.getLinearVelocity()).scl(timeStep)
+						.add(targetSteerable.getPosition());
 					orientation = perdictedPosition.sub(position).angleRad();
 				}
 
@@ -214,10 +170,8 @@ public enum UnitState implements State<Entity>{
 					position.add((radius * MathUtils.cos(orientation)), radius * MathUtils.sin(orientation));
 
 					// Set the velocity of the projectile we will fire
-					Vector2 velocity = Vector2.X;
+					Vector2 velocity = tmpVelocity.set(weaponComp.projectileVelocity, 0);
 					velocity.setAngleRad(orientation);
-					velocity.nor();
-					velocity.scl(weaponComp.projectileVelocity);
 
 					// Spawn our projetile into the gameWorld
 					Faction faction = Components.FACTION.get(entity).getFaction();
@@ -226,14 +180,18 @@ public enum UnitState implements State<Entity>{
 					weaponComp.cooldown = weaponComp.attackSpeed; // Set the cooldown to the attack speed
 				}
 			}
-
-			weaponComp.cooldown -= Gdx.graphics.getDeltaTime();
 		}
 	}
 	
 	;
 
 	private static final String TAG = "[UnitState]";
+
+	// Scratch vectors for aiming, states are only updated from the engine thread
+	private static final Vector2 tmpPosition = new Vector2();
+	private static final Vector2 tmpDisplacement = new Vector2();
+	private static final Vector2 tmpPrediction = new Vector2();
+	private static final Vector2 tmpVelocity = new Vector2();
 	
 	@Override
 	public void enter(Entity entity) {
@@ -255,7 +213,7 @@ public enum UnitState implements State<Entity>{
 
 	@Override
 	public boolean onMessage(Entity entity, Telegram telegram) {
-		TelegramMessage telegramMsg = TelegramMessage.values()[telegram.message];
+		TelegramMessage telegramMsg = TelegramMessage.get(telegram.message);
 		switch (telegramMsg) {
 		
 		/* If our target was removed from the engine
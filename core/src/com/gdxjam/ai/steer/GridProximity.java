@@ -0,0 +1,96 @@
+package com.gdxjam.ai.steer;
+
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.math.Vector2;
+import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.components.SteerableComponent;
+import com.gdxjam.ecs.SpatialGrid;
+import com.gdxjam.systems.SpatialIndexSystem;
+
+/** A {@link Proximity} backed by the grids of the {@link SpatialIndexSystem}. Only the cells overlapping the detection radius are
+ * visited so group behaviors scale with the local density rather than with the size of the group. Neighbors are filtered by
+ * {@link com.gdxjam.ecs.EntityCategory} bits and by faction.
+ *
+ * A neighbor is reported when the distance between the owner and the neighbor is less than the detection radius plus the bounding
+ * radius of the neighbor, the same rule used by {@link com.badlogic.gdx.ai.steer.proximities.RadiusProximity}. */
+public class GridProximity implements Proximity<Vector2> {
+
+	protected Steerable<Vector2> owner;
+	protected SpatialIndexSystem index;
+	protected float radius;
+	protected int categoryMask;
+	protected int factionMask;
+
+	/** Configures the proximity. Allows the instance to be reused by pooled components.
+	 * @param categoryMask the entity categories that are considered neighbors
+	 * @param factionMask the factions that are considered neighbors, see {@link #factionBit(Faction)} */
+	public GridProximity set (Steerable<Vector2> owner, SpatialIndexSystem index, float radius, int categoryMask, int factionMask) {
+		this.owner = owner;
+		this.index = index;
+		this.radius = radius;
+		this.categoryMask = categoryMask;
+		this.factionMask = factionMask;
+		return this;
+	}
+
+	@Override
+	public Steerable<Vector2> getOwner () {
+		return owner;
+	}
+
+	@Override
+	public void setOwner (Steerable<Vector2> owner) {
+		this.owner = owner;
+	}
+
+	public float getRadius () {
+		return radius;
+	}
+
+	public void setRadius (float radius) {
+		this.radius = radius;
+	}
+
+	@Override
+	public int findNeighbors (ProximityCallback<Vector2> callback) {
+		Vector2 position = owner.getPosition();
+		float x = position.x;
+		float y = position.y;
+		return findNeighbors(index.getStaticGrid(), x, y, callback) + findNeighbors(index.getDynamicGrid(), x, y, callback);
+	}
+
+	private int findNeighbors (SpatialGrid grid, float x, float y, ProximityCallback<Vector2> callback) {
+		if (grid.getSize() == 0) return 0;
+
+		float extent = radius + grid.getMaxRadius(categoryMask);
+		int minX = grid.getCellX(x - extent);
+		int maxX = grid.getCellX(x + extent);
+		int minY = grid.getCellY(y - extent);
+		int maxY = grid.getCellY(y + extent);
+
+		int neighborCount = 0;
+		for (int cellY = minY; cellY <= maxY; cellY++) {
+			for (int cellX = minX; cellX <= maxX; cellX++) {
+				for (int entry = grid.getHead(cellX, cellY); entry != SpatialGrid.NONE; entry = grid.getNext(entry)) {
+					SteerableComponent agent = grid.getAgent(entry);
+					if (agent == owner || !grid.matches(entry, categoryMask, factionMask)) continue;
+
+					float range = radius + grid.getRadius(entry);
+					float dx = grid.getX(entry) - x;
+					float dy = grid.getY(entry) - y;
+					if (dx * dx + dy * dy < range * range) {
+						if (callback.reportNeighbor(agent)) neighborCount++;
+					}
+				}
+			}
+		}
+		return neighborCount;
+	}
+
+	/** @return the bit representing the faction in a faction mask */
+	public static int factionBit (Faction faction) {
+		return 1 << faction.ordinal();
+	}
+
+}
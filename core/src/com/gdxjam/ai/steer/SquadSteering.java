@@ -0,0 +1,86 @@
+package com.gdxjam.ai.steer;
+
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.SteeringBehavior;
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.Evade;
+import com.badlogic.gdx.ai.steer.behaviors.Pursue;
+import com.badlogic.gdx.ai.steer.behaviors.Separation;
+import com.badlogic.gdx.ai.steer.behaviors.Wander;
+import com.badlogic.gdx.ai.steer.limiters.NullLimiter;
+import com.badlogic.gdx.ai.utils.Location;
+import com.badlogic.gdx.math.Vector2;
+
+/** The steering behaviors of a squad, advancing to its target location and the combat behaviors of AI squads. They are created with the first squad a pooled squad component is initialized
+ * for, because some behaviors create their vectors from the owner, and re-targeted on state changes. */
+public class SquadSteering {
+
+	private final Proximity<Vector2> proximity;
+
+	// Advancing to the target location while keeping apart from other squads
+	private Arrive<Vector2> advanceArrive;
+	private Separation<Vector2> advanceSeparation;
+	private BlendedSteering<Vector2> advance;
+
+	private Wander<Vector2> wander;
+	private Pursue<Vector2> pursue;
+	private BlendedSteering<Vector2> aggressive;
+	private Evade<Vector2> evade;
+
+	/** @param proximity the proximity used to keep apart from other squads, owned by the squad for its whole lifetime */
+	public SquadSteering (Proximity<Vector2> proximity) {
+		this.proximity = proximity;
+	}
+
+	/** Creates the behaviors the first time with the owner, later squads of the pooled component reuse them */
+	public void init (Steerable<Vector2> owner) {
+		if (aggressive != null) return;
+
+		advanceArrive = new Arrive<Vector2>(owner).setTimeToTarget(0.001f).setDecelerationRadius(2f).setArrivalTolerance(0.0001f);
+		advanceSeparation = new Separation<Vector2>(owner, proximity);
+		advance = new BlendedSteering<Vector2>(owner).setLimiter(NullLimiter.NEUTRAL_LIMITER).add(advanceSeparation, 10000f)
+			.add(advanceArrive, 0.5f);
+
+		wander = new Wander<Vector2>(owner).setAlignTolerance(0.1f).setWanderOffset(2.5f).setWanderOrientation(0)
+			.setWanderRate(2.5f);
+		pursue = new Pursue<Vector2>(owner, null).setMaxPredictionTime(0.1f);
+		aggressive = new BlendedSteering<Vector2>(owner).add(wander, 0.8f).add(pursue, 1.0f);
+		evade = new Evade<Vector2>(owner, null, 0.1f);
+	}
+
+	public SteeringBehavior<Vector2> advance (Steerable<Vector2> owner, Location<Vector2> target) {
+		init(owner);
+		advanceArrive.setOwner(owner);
+		advanceArrive.setTarget(target);
+		advanceSeparation.setOwner(owner);
+		advance.setOwner(owner);
+		return advance;
+	}
+
+	public SteeringBehavior<Vector2> aggressive (Steerable<Vector2> owner, Steerable<Vector2> target) {
+		init(owner);
+		wander.setOwner(owner);
+		pursue.setOwner(owner);
+		pursue.setTarget(target);
+		aggressive.setOwner(owner);
+		return aggressive;
+	}
+
+	public SteeringBehavior<Vector2> defensive (Steerable<Vector2> owner, Steerable<Vector2> target) {
+		init(owner);
+		evade.setOwner(owner);
+		evade.setTarget(target);
+		return evade;
+	}
+
+	/** Drops the references to the owner and its target, the behaviors are kept for the next squad */
+	public void reset () {
+		if (aggressive == null) return;
+		advance(null, null);
+		aggressive(null, null);
+		defensive(null, null);
+	}
+
+}
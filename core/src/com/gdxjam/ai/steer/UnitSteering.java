@@ -0,0 +1,102 @@
+package com.gdxjam.ai.steer;
+
+import com.badlogic.gdx.ai.steer.Proximity;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.SteeringBehavior;
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
+import com.badlogic.gdx.ai.steer.behaviors.CollisionAvoidance;
+import com.badlogic.gdx.ai.steer.behaviors.Face;
+import com.badlogic.gdx.ai.steer.behaviors.ReachOrientation;
+import com.badlogic.gdx.ai.utils.Location;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+
+/** The steering behaviors of a unit for each of its states. They are created with the first unit a pooled unit component is
+ * initialized for, because some behaviors create their vectors from the owner, and afterwards only re-targeted when the unit
+ * changes state, so state changes in large battles do not allocate. */
+public class UnitSteering {
+
+	private final Proximity<Vector2> proximity;
+
+	// Following the formation slot
+	private Arrive<Vector2> followArrive;
+	private ReachOrientation<Vector2> followOrientation;
+	private BlendedSteering<Vector2> follow;
+
+	// Harvesting a resource
+	private Arrive<Vector2> harvestArrive;
+	private Face<Vector2> harvestFace;
+	private CollisionAvoidance<Vector2> harvestAvoidance;
+	private BlendedSteering<Vector2> harvest;
+
+	// Fighting from the formation slot
+	private Face<Vector2> combatFace;
+	private Arrive<Vector2> combatArrive;
+	private BlendedSteering<Vector2> combat;
+
+	/** @param proximity the proximity used for local collision avoidance, owned by the unit for its whole lifetime */
+	public UnitSteering (Proximity<Vector2> proximity) {
+		this.proximity = proximity;
+	}
+
+	/** Creates the behaviors the first time with the owner, later units of the pooled component reuse them */
+	public void init (Steerable<Vector2> owner) {
+		if (follow != null) return;
+
+		followArrive = new Arrive<Vector2>(owner).setTimeToTarget(0.001f).setArrivalTolerance(0.01f).setDecelerationRadius(2f);
+		followOrientation = new ReachOrientation<Vector2>(owner).setTimeToTarget(0.001f).setAlignTolerance(0.001f)
+			.setDecelerationRadius(MathUtils.PI);
+		follow = new BlendedSteering<Vector2>(owner).add(followArrive, 1.0f).add(followOrientation, 1.0f);
+
+		harvestArrive = new Arrive<Vector2>(owner).setTimeToTarget(0.01f).setArrivalTolerance(0.001f).setDecelerationRadius(4f);
+		harvestFace = new Face<Vector2>(owner).setAlignTolerance(0.001f).setTimeToTarget(0.001f).setDecelerationRadius(2.0f);
+		harvestAvoidance = new CollisionAvoidance<Vector2>(owner, proximity);
+		harvest = new BlendedSteering<Vector2>(owner).add(harvestArrive, 1.0f).add(harvestFace, 1.0f).add(harvestAvoidance,
+			1000.0f);
+
+		combatFace = new Face<Vector2>(owner).setAlignTolerance(0.0001f).setDecelerationRadius(2f).setTimeToTarget(0.00001f);
+		combatArrive = new Arrive<Vector2>(owner).setTimeToTarget(0.001f).setArrivalTolerance(0.01f).setDecelerationRadius(2f);
+		combat = new BlendedSteering<Vector2>(owner).add(combatArrive, 1.0f).add(combatFace, 1.0f);
+	}
+
+	public SteeringBehavior<Vector2> follow (Steerable<Vector2> owner, Location<Vector2> slot) {
+		init(owner);
+		followArrive.setOwner(owner);
+		followArrive.setTarget(slot);
+		followOrientation.setOwner(owner);
+		followOrientation.setTarget(slot);
+		follow.setOwner(owner);
+		return follow;
+	}
+
+	public SteeringBehavior<Vector2> harvest (Steerable<Vector2> owner, Location<Vector2> resource) {
+		init(owner);
+		harvestArrive.setOwner(owner);
+		harvestArrive.setTarget(resource);
+		harvestFace.setOwner(owner);
+		harvestFace.setTarget(resource);
+		harvestAvoidance.setOwner(owner);
+		harvest.setOwner(owner);
+		return harvest;
+	}
+
+	public SteeringBehavior<Vector2> combat (Steerable<Vector2> owner, Location<Vector2> slot, Location<Vector2> enemy) {
+		init(owner);
+		combatArrive.setOwner(owner);
+		combatArrive.setTarget(slot);
+		combatFace.setOwner(owner);
+		combatFace.setTarget(enemy);
+		combat.setOwner(owner);
+		return combat;
+	}
+
+	/** Drops the references to the owner and its targets, the behaviors are kept for the next unit */
+	public void reset () {
+		if (follow == null) return;
+		follow(null, null);
+		harvest(null, null);
+		combat(null, null, null);
+	}
+
+}
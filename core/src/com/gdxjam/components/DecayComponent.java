@@ -22,6 +22,7 @@ public class DecayComponent extends Component implements Poolable {
 	@Override
 	public void reset () {
 		elapsed = 0;
+		decayTime = 0;
 	}
 
 }
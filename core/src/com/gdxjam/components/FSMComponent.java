@@ -3,15 +3,17 @@ package com.gdxjam.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.gdx.ai.fsm.DefaultStateMachine;
 import com.badlogic.gdx.ai.fsm.State;
 import com.badlogic.gdx.ai.fsm.StateMachine;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gdxjam.ai.state.EntityStateMachine;
+import com.gdxjam.ai.state.TelegramStats;
 
-public class FSMComponent extends Component implements Telegraph {
+public class FSMComponent extends Component implements Telegraph, Poolable {
 
-	private DefaultStateMachine<Entity> stateMachine;
+	private final EntityStateMachine stateMachine = new EntityStateMachine();
 
 	/** Can only be created by PooledEngine */
 	private FSMComponent () {
@@ -19,7 +21,7 @@ public class FSMComponent extends Component implements Telegraph {
 	}
 
 	public FSMComponent init (Entity entity) {
-		stateMachine = new DefaultStateMachine<Entity>(entity);
+		stateMachine.reset(entity);
 		return this;
 	}
 
@@ -37,6 +39,12 @@ public class FSMComponent extends Component implements Telegraph {
 
 	@Override
 	public boolean handleMessage (Telegram msg) {
+		TelegramStats.record(msg);
 		return stateMachine.handleMessage(msg);
 	}
+
+	@Override
+	public void reset () {
+		stateMachine.reset(null);
+	}
 }
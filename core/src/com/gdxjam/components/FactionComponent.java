@@ -1,8 +1,9 @@
 package com.gdxjam.components;
 
 import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool.Poolable;
 
-public class FactionComponent extends Component{
+public class FactionComponent extends Component implements Poolable{
 
 	public enum Faction {
 		FACTION0("Republic", "This is a test so you know"),
@@ -35,5 +36,10 @@ public class FactionComponent extends Component{
 		return faction;
 	}
 	
+	@Override
+	public void reset () {
+		faction = null;
+	}
+	
 	
 }
@@ -17,6 +17,8 @@ public class HealthComponent extends Component implements Poolable {
 
 	@Override
 	public void reset () {
+		min = 0;
+		max = 100;
 		value = 100;
 	}
 
@@ -4,6 +4,7 @@ package com.gdxjam.components;
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gdxjam.ecs.TransformMirror;
 
 public class PhysicsComponent extends Component implements Poolable {
 
@@ -36,14 +37,18 @@ public class PhysicsComponent extends Component implements Poolable {
 // }
 
 	private Body body;
+	private TransformMirror transforms;
+	private int slot = -1;
 
 	/** Can only be created by PooledEngine */
 	private PhysicsComponent () {
 		// private constructor
 	}
 
-	public PhysicsComponent init (Body body) {
+	public PhysicsComponent init (Body body, TransformMirror transforms) {
 		this.body = body;
+		this.transforms = transforms;
+		this.slot = transforms.register(body);
 		return this;
 	}
 
@@ -51,9 +56,20 @@ public class PhysicsComponent extends Component implements Poolable {
 		return body;
 	}
 
+	public TransformMirror getTransforms () {
+		return transforms;
+	}
+
+	/** @return the slot of the body in the {@link TransformMirror} */
+	public int getSlot () {
+		return slot;
+	}
+
 	@Override
 	public void reset () {
 		body = null;
+		transforms = null;
+		slot = -1;
 	}
 
 }
@@ -7,6 +7,8 @@ import com.badlogic.gdx.utils.Pool.Poolable;
 public class ProjectileComponent extends Component implements Poolable {
 
 	private int damage;
+	// Set by the first hit, the projectile stays in the world until the engine removes it
+	private boolean spent;
 
 	/** Can only be created by PooledEngine */
 	private ProjectileComponent () {
@@ -22,9 +24,17 @@ public class ProjectileComponent extends Component implements Poolable {
 		return damage;
 	}
 
+	/** @return false the first time, true for every later hit of the same projectile */
+	public boolean spend () {
+		if (spent) return true;
+		spent = true;
+		return false;
+	}
+
 	@Override
 	public void reset () {
-
+		damage = 0;
+		spent = false;
 	}
 
 }
@@ -7,7 +7,7 @@ import com.gdxjam.utils.Range;
 
 public class ResourceComponent extends Component implements Poolable {
 
-	public Range capactiy;
+	public final Range capactiy = new Range(0, 0);
 	public int value;
 
 	/** Can only be created by PooledEngine */
@@ -16,7 +16,7 @@ public class ResourceComponent extends Component implements Poolable {
 	}
 
 	public ResourceComponent init (int amount) {
-		capactiy = new Range(0, amount);
+		capactiy.set(0, amount);
 		this.value = amount;
 		return this;
 	}
@@ -24,6 +24,7 @@ public class ResourceComponent extends Component implements Poolable {
 	@Override
 	public void reset () {
 		value = 0;
+		capactiy.set(0, 0);
 	}
 
 }
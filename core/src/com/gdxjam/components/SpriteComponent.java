@@ -1,39 +1,52 @@
-
 package com.gdxjam.components;
 
 import com.badlogic.ashley.core.Component;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gdxjam.ecs.SpriteRegions;
 
+/** The region and size an entity is drawn with. The region is shared through {@link SpriteRegions}, the position and rotation are
+ * read by the renderer from the physics transform mirror, or from the {@link ParalaxComponent} of background art. */
 public class SpriteComponent extends Component implements Poolable {
 
-	private Sprite sprite;
+	private int region = -1;
+	private float width;
+	private float height;
 
 	/** Can only be created by PooledEngine */
 	private SpriteComponent () {
 		// private constructor
 	}
 
-	public SpriteComponent init (TextureRegion region, float x, float y, float width, float height) {
-		sprite = new Sprite(region);
-		sprite.setBounds(x, y, width, height);
-		sprite.setOriginCenter();
-		return this;
+	public SpriteComponent init (TextureRegion region, float width, float height) {
+		return init(SpriteRegions.getIndex(region), width, height);
 	}
 
-	public SpriteComponent init (Sprite sprite) {
-		this.sprite = sprite;
+	public SpriteComponent init (int region, float width, float height) {
+		this.region = region;
+		this.width = width;
+		this.height = height;
 		return this;
 	}
 
-	public Sprite getSprite () {
-		return sprite;
+	/** @return the index of the region in {@link SpriteRegions} */
+	public int getRegion () {
+		return region;
+	}
+
+	public float getWidth () {
+		return width;
+	}
+
+	public float getHeight () {
+		return height;
 	}
 
 	@Override
 	public void reset () {
-		sprite = null;
+		region = -1;
+		width = 0;
+		height = 0;
 	}
 
 }
@@ -8,7 +8,6 @@ import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.ai.fma.Formation;
 import com.badlogic.gdx.ai.fma.FormationMotionModerator;
 import com.badlogic.gdx.ai.fma.FormationPattern;
-import com.badlogic.gdx.ai.fma.SoftRoleSlotAssignmentStrategy;
 import com.badlogic.gdx.ai.fma.patterns.OffensiveCircleFormationPattern;
 import com.badlogic.gdx.ai.fsm.State;
 import com.badlogic.gdx.ai.msg.MessageManager;
@@ -16,15 +15,23 @@ import com.badlogic.gdx.ai.steer.Steerable;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.Pool.Poolable;
 import com.gdxjam.ai.formation.ColumnFormationPattern;
 import com.gdxjam.ai.formation.DistanceSlotCostProvider;
+import com.gdxjam.ai.formation.FormationAnchor;
 import com.gdxjam.ai.formation.LineFormationPattern;
+import com.gdxjam.ai.formation.NearestSlotAssignmentStrategy;
+import com.gdxjam.ai.formation.PooledFormation;
 import com.gdxjam.ai.formation.SquareFormationPattern;
 import com.gdxjam.ai.formation.VFormationPattern;
 import com.gdxjam.ai.formation.WedgeFormationPattern;
+import com.gdxjam.ai.navigation.FlowField;
+import com.gdxjam.ai.navigation.PathRequest;
 import com.gdxjam.ai.state.SquadCombatState;
 import com.gdxjam.ai.state.TelegramMessage;
+import com.gdxjam.ai.steer.GridProximity;
+import com.gdxjam.ai.steer.SquadSteering;
 import com.gdxjam.ecs.Components;
 import com.gdxjam.ecs.EntityCategory;
 import com.gdxjam.utils.Constants;
@@ -55,10 +62,26 @@ public class SquadComponent extends Component implements Poolable {
 	public Array<Entity> members = new Array<Entity>();
 	public Array<Steerable<Vector2>> memberAgents = new Array<Steerable<Vector2>>();
 
+	// Formation members in the same order as members, kept so a reset can release them after their entities are gone
+	private Array<UnitComponent> memberUnits = new Array<UnitComponent>();
+
 	// Formation
 	public Formation<Vector2> formation;
+	private final FormationAnchor anchor = new FormationAnchor();
+	@SuppressWarnings("unchecked")
+	private final FormationPattern<Vector2>[] patterns = new FormationPattern[FormationPatternType.values().length];
 	public FormationMotionModerator<Vector2> moderator;
 	public Location2 targetLocation = new Location2();
+
+	// Shared navigation field the target location is advanced along, null when the target is set directly
+	public FlowField flowField;
+
+	// Path around obstacles for move orders, followed by advancing the target location through its waypoints
+	public final PathRequest path = new PathRequest();
+
+	// Steering behaviors reused across state changes
+	private final GridProximity proximity = new GridProximity();
+	private final SquadSteering steering = new SquadSteering(proximity);
 	
 	private final Comparator<Entity> resourceComparator = new Comparator<Entity>() {
 		@Override
@@ -84,22 +107,33 @@ public class SquadComponent extends Component implements Poolable {
 
 	public SquadComponent init (Steerable<Vector2> steerable) {
 		this.steerable = steerable;
-		SoftRoleSlotAssignmentStrategy<Vector2> slotAssignmentStrategy = new SoftRoleSlotAssignmentStrategy<Vector2>(
-			new DistanceSlotCostProvider());
-		formation = new Formation<Vector2>(steerable, getFormationPattern(DEFAULT_PATTERN), slotAssignmentStrategy);
+		anchor.setSteerable(steerable);
+		steering.init(steerable);
+
+		// The formation is created with the first squad and reused by every squad this component is pooled for
+		if (formation == null) {
+			DistanceSlotCostProvider costProvider = new DistanceSlotCostProvider();
+			NearestSlotAssignmentStrategy<Vector2> slotAssignmentStrategy = new NearestSlotAssignmentStrategy<Vector2>(costProvider);
+			formation = new PooledFormation<Vector2>(anchor, getFormationPattern(DEFAULT_PATTERN), slotAssignmentStrategy);
+			costProvider.setFormation(formation);
+		}
 		return this;
 	}
 
 	public void addMember (Entity entity) {
+		UnitComponent unitComp = Components.UNIT.get(entity);
 		members.add(entity);
 		memberAgents.add(Components.STEERABLE.get(entity));
-		formation.addMember(Components.UNIT.get(entity));
+		memberUnits.add(unitComp);
+		formation.addMember(unitComp);
 	}
 
 	public void removeMember (Entity entity) {
+		UnitComponent unitComp = Components.UNIT.get(entity);
 		members.removeValue(entity, true);
 		memberAgents.removeValue(Components.STEERABLE.get(entity), true);
-		formation.removeMember(Components.UNIT.get(entity));
+		memberUnits.removeValue(unitComp, true);
+		formation.removeMember(unitComp);
 	}
 
 	public void track (Entity self, Entity target) {
@@ -134,6 +168,22 @@ public class SquadComponent extends Component implements Poolable {
 		}
 	}
 
+	/** Stops tracking every entity of the set
+	 * @param agents the steerables of the entities */
+	public void untrackAll (ObjectSet<Entity> targets, ObjectSet<Steerable<Vector2>> agents) {
+		removeAll(enemiesTracked, targets);
+		removeAll(resourcesTracked, targets);
+		removeAll(friendliesTracked, targets);
+		removeAll(resourceAgents, agents);
+		removeAll(friendlyAgents, agents);
+	}
+
+	private static <T> void removeAll (Array<T> array, ObjectSet<T> set) {
+		for (int i = array.size - 1; i >= 0; i--) {
+			if (set.contains(array.get(i))) array.removeIndex(i);
+		}
+	}
+
 	private Vector2 getPosition () {
 		return steerable.getPosition();
 	}
@@ -147,7 +197,17 @@ public class SquadComponent extends Component implements Poolable {
 		formation.changePattern(formationPattern);
 	}
 
+	/** @return the pattern of the given type. Patterns are created once per component and reused. */
 	public FormationPattern<Vector2> getFormationPattern (FormationPatternType pattern) {
+		FormationPattern<Vector2> formationPattern = patterns[pattern.ordinal()];
+		if (formationPattern == null) {
+			formationPattern = createFormationPattern(pattern);
+			patterns[pattern.ordinal()] = formationPattern;
+		}
+		return formationPattern;
+	}
+
+	private FormationPattern<Vector2> createFormationPattern (FormationPatternType pattern) {
 		switch (pattern) {
 		case Line:
 			return new LineFormationPattern(Constants.unitRadius + PATTERN_SPACING);
@@ -169,10 +229,40 @@ public class SquadComponent extends Component implements Poolable {
 		targetLocation.getPosition().set(target);
 	}
 
+	public SquadSteering getSteering () {
+		return steering;
+	}
+
+	/** @return the proximity used to keep the squad apart from other squads */
+	public GridProximity getProximity () {
+		return proximity;
+	}
+
 	@Override
 	public void reset () {
+		// Members are normally removed with their entities, any left over are released from the formation
+		for (int i = memberUnits.size - 1; i >= 0; i--)
+			formation.removeMember(memberUnits.get(i));
+		if (formation != null) formation.changePattern(getFormationPattern(DEFAULT_PATTERN));
+
+		enemiesTracked.clear();
+		resourcesTracked.clear();
+		friendliesTracked.clear();
+		resourceAgents.clear();
+		friendlyAgents.clear();
 		members.clear();
 		memberAgents.clear();
+		memberUnits.clear();
+
+		targetLocation.getPosition().setZero();
+		targetLocation.setOrientation(0);
+		flowField = null;
+		path.reset();
+
+		steerable = null;
+		anchor.setSteerable(null);
+		proximity.set(null, null, 0, 0, 0);
+		steering.reset();
 	}
 
 }
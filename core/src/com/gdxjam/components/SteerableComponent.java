@@ -7,6 +7,7 @@ import com.badlogic.gdx.ai.utils.Location;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gdxjam.ecs.TransformMirror;
 import com.gdxjam.utils.Location2;
 import com.gdxjam.utils.Vector2Utils;
 
@@ -30,6 +31,12 @@ public class SteerableComponent extends Component implements Steerable<Vector2>,
 
 	private Body body;
 
+	// Transforms are read from the physics mirror rather than the body to avoid JNI calls
+	private TransformMirror transforms;
+	private int slot;
+	private final Vector2 position = new Vector2();
+	private final Vector2 linearVelocity = new Vector2();
+
 	/** Can only be created by PooledEngine */
 	private SteerableComponent () {
 		// private constructor
@@ -39,8 +46,10 @@ public class SteerableComponent extends Component implements Steerable<Vector2>,
 		return body;
 	}
 
-	public SteerableComponent init (Body body, float radius) {
-		this.body = body;
+	public SteerableComponent init (PhysicsComponent physics, float radius) {
+		this.body = physics.getBody();
+		this.transforms = physics.getTransforms();
+		this.slot = physics.getSlot();
 		this.boundingRadius = radius;
 		return this;
 	}
@@ -97,22 +106,23 @@ public class SteerableComponent extends Component implements Steerable<Vector2>,
 
 	@Override
 	public Vector2 getPosition () {
-		return body.getPosition();
+		return transforms.getPosition(slot, position);
 	}
 
 	@Override
 	public float getOrientation () {
-		return body.getAngle();
+		return transforms.getAngle(slot);
 	}
 
 	@Override
 	public void setOrientation (float orientation) {
 		body.setTransform(getPosition(), orientation);
+		transforms.setAngle(slot, orientation);
 	}
 
 	@Override
 	public Vector2 getLinearVelocity () {
-		return body.getLinearVelocity();
+		return transforms.getLinearVelocity(slot, linearVelocity);
 	}
 
 	@Override
@@ -168,6 +178,8 @@ public class SteerableComponent extends Component implements Steerable<Vector2>,
 		independentFacing = false;
 
 		tagged = false;
+		body = null;
+		transforms = null;
 	}
 
 }
@@ -8,22 +8,32 @@ import com.badlogic.gdx.ai.utils.Location;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gdxjam.ai.steer.GridProximity;
+import com.gdxjam.ai.steer.UnitSteering;
+import com.gdxjam.ecs.TransformMirror;
 import com.gdxjam.utils.Location2;
 
 public class UnitComponent extends Component implements FormationMember<Vector2>, Poolable {
 
 	private Entity squad;
 	private Body body;
+	private TransformMirror transforms;
+	private int slot;
+	private final Vector2 position = new Vector2();
 	private Location2 targetLocation = new Location2();
+	private final GridProximity proximity = new GridProximity();
+	private final UnitSteering steering = new UnitSteering(proximity);
 
 	/** Can only be created by PooledEngine */
 	private UnitComponent () {
 		// private constructor
 	}
 
-	public UnitComponent init (Entity squad, Body body) {
+	public UnitComponent init (Entity squad, PhysicsComponent physics) {
 		this.squad = squad;
-		this.body = body;
+		this.body = physics.getBody();
+		this.transforms = physics.getTransforms();
+		this.slot = physics.getSlot();
 		return this;
 	}
 
@@ -35,6 +45,21 @@ public class UnitComponent extends Component implements FormationMember<Vector2>
 		return body;
 	}
 
+	/** @return the position of the unit as of the last physics step */
+	public Vector2 getPosition () {
+		return transforms.getPosition(slot, position);
+	}
+
+	/** @return the proximity used for the units local collision avoidance */
+	public GridProximity getProximity () {
+		return proximity;
+	}
+
+	/** @return the steering behaviors of the unit, reused whenever it changes state */
+	public UnitSteering getSteering () {
+		return steering;
+	}
+
 	@Override
 	public Location<Vector2> getTargetLocation () {
 		return targetLocation;
@@ -42,6 +67,13 @@ public class UnitComponent extends Component implements FormationMember<Vector2>
 
 	@Override
 	public void reset () {
-
+		squad = null;
+		body = null;
+		transforms = null;
+		slot = -1;
+		targetLocation.getPosition().setZero();
+		targetLocation.setOrientation(0);
+		proximity.set(null, null, 0, 0, 0);
+		steering.reset();
 	}
 }
@@ -3,15 +3,16 @@ package com.gdxjam.components;
 
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gdxjam.utils.Constants;
 
 public class WeaponComponent extends Component implements Poolable {
 
 	public float cooldown = 0.0f;
-	public float attackSpeed = 1.0f;
-	public float damage = 20;
+	public float attackSpeed = Constants.weaponAttackSpeed;
+	public float damage = Constants.weaponDamage;
 	
-	public float projectileRadius = 0.25f;
-	public float projectileVelocity = 45;
+	public float projectileRadius = Constants.projectileRadius;
+	public float projectileVelocity = Constants.projectileVelocity;
 
 	/** Can only be created by PooledEngine */
 	private WeaponComponent () {
@@ -28,6 +29,10 @@ public class WeaponComponent extends Component implements Poolable {
 	@Override
 	public void reset () {
 		cooldown = 0.0f;
+		attackSpeed = Constants.weaponAttackSpeed;
+		damage = Constants.weaponDamage;
+		projectileRadius = Constants.projectileRadius;
+		projectileVelocity = Constants.projectileVelocity;
 	}
 
 }
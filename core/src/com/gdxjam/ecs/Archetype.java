@@ -0,0 +1,82 @@
+package com.gdxjam.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.gdxjam.Assets;
+import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.systems.PhysicsSystem;
+
+/** A compiled entity template loaded by {@link Archetypes}. The body definition, fixture definition and collision filter are
+ * shared by every instance so creating the body of an archetype does not allocate any Box2D definitions. */
+public class Archetype implements Disposable {
+
+	public final String name;
+	public int category;
+
+	public final BodyDef bodyDef = new BodyDef();
+	public final FixtureDef fixtureDef = new FixtureDef();
+	private CircleShape shape;
+
+	public String regionName;
+	public boolean factionSprite;
+	private Array<AtlasRegion> regions;
+
+	public boolean steerable;
+	public boolean steeringBehavior;
+	public boolean target;
+	public int health;
+	public int weaponDamage;
+	public float weaponAttackSpeed;
+	public float weaponProjectileRadius;
+	public float resourcePerRadius;
+	public float decay;
+
+	public Archetype (String name) {
+		this.name = name;
+	}
+
+	/** Creates the body of an instance with a single circle fixture. Box2D copies the shape into the fixture so the shared shape is
+	 * only resized. */
+	public Body createBody (PhysicsSystem physicsSystem, Entity entity, float x, float y, float angle, float radius) {
+		// Shapes are native objects, created on first use once Box2D has been loaded by the world
+		if (shape == null) {
+			shape = new CircleShape();
+			fixtureDef.shape = shape;
+		}
+
+		bodyDef.position.set(x, y);
+		bodyDef.angle = angle;
+		Body body = physicsSystem.createBody(bodyDef);
+		body.setUserData(entity);
+
+		shape.setRadius(radius);
+		body.createFixture(fixtureDef);
+		return body;
+	}
+
+	/** @return the sprite region for the faction, or a random variation when the archetype does not depend on faction */
+	public TextureRegion getRegion (Faction faction) {
+		if (regions == null) {
+			TextureAtlas atlas = Assets.getManager().get(Assets.TEXTURE_ATLAS_OBJECTS, TextureAtlas.class);
+			regions = atlas.findRegions(regionName);
+		}
+		return factionSprite ? regions.get(faction.ordinal()) : regions.random();
+	}
+
+	@Override
+	public void dispose () {
+		if (shape != null) shape.dispose();
+		shape = null;
+		fixtureDef.shape = null;
+		regions = null;
+	}
+
+}
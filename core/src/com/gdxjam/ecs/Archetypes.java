@@ -0,0 +1,97 @@
+package com.gdxjam.ecs;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.gdxjam.utils.Constants;
+
+/** Loads the entity archetypes from {@value #FILE} and compiles each of them once into an {@link Archetype}. */
+public class Archetypes {
+
+	private static final String TAG = "[" + Archetypes.class.getSimpleName() + "]";
+
+	public static final String FILE = "data/archetypes.json";
+
+	private static ObjectMap<String, Archetype> archetypes;
+
+	/** @return the archetype with the given name, loading the archetype file on first use */
+	public static Archetype get (String name) {
+		if (archetypes == null) load(Gdx.files.internal(FILE));
+
+		Archetype archetype = archetypes.get(name);
+		if (archetype == null) throw new GdxRuntimeException("unknown archetype: " + name);
+		return archetype;
+	}
+
+	public static void load (FileHandle file) {
+		dispose();
+		archetypes = new ObjectMap<String, Archetype>();
+
+		JsonValue root = new JsonReader().parse(file);
+		for (JsonValue value = root.child; value != null; value = value.next) {
+			archetypes.put(value.name, compile(value));
+		}
+		Gdx.app.debug(TAG, "loaded " + archetypes.size + " archetypes");
+	}
+
+	private static Archetype compile (JsonValue value) {
+		Archetype archetype = new Archetype(value.name);
+
+		archetype.category = parseCategories(value.get("category"));
+		archetype.fixtureDef.filter.categoryBits = (short)archetype.category;
+		if (value.has("mask")) archetype.fixtureDef.filter.maskBits = (short)parseCategories(value.get("mask"));
+
+		archetype.bodyDef.type = BodyType.valueOf(value.getString("body", BodyType.DynamicBody.name()));
+		archetype.bodyDef.bullet = value.getBoolean("bullet", false);
+		archetype.bodyDef.linearDamping = value.getFloat("linearDamping", 0.0f);
+		archetype.bodyDef.angularDamping = value.getFloat("angularDamping", 0.0f);
+		archetype.fixtureDef.density = value.getFloat("density", 0.0f);
+		archetype.fixtureDef.isSensor = value.getBoolean("sensor", false);
+
+		JsonValue sprite = value.get("sprite");
+		if (sprite != null) {
+			archetype.regionName = sprite.getString("region");
+			archetype.factionSprite = sprite.getBoolean("faction", false);
+		}
+
+		JsonValue weapon = value.get("weapon");
+		if (weapon != null) {
+			archetype.weaponDamage = weapon.getInt("damage", Constants.weaponDamage);
+			archetype.weaponAttackSpeed = weapon.getFloat("attackSpeed", Constants.weaponAttackSpeed);
+			archetype.weaponProjectileRadius = weapon.getFloat("projectileRadius", Constants.projectileRadius);
+		}
+
+		archetype.steerable = value.getBoolean("steerable", false);
+		archetype.steeringBehavior = value.getBoolean("steeringBehavior", false);
+		archetype.target = value.getBoolean("target", false);
+		archetype.health = value.getInt("health", 0);
+		archetype.resourcePerRadius = value.getFloat("resourcePerRadius", 0.0f);
+		// Projectiles always expire, the other archetypes only decay when they ask for it
+		boolean projectile = (archetype.category & EntityCategory.PROJECTILE) != 0;
+		archetype.decay = value.getFloat("decay", projectile ? Constants.projectileDecayTime : 0.0f);
+		return archetype;
+	}
+
+	/** Categories are given either as a single name or as an array of names */
+	private static int parseCategories (JsonValue value) {
+		if (value == null) return 0;
+		if (value.isString()) return EntityCategory.valueOf(value.asString());
+
+		int bits = 0;
+		for (JsonValue child = value.child; child != null; child = child.next)
+			bits |= EntityCategory.valueOf(child.asString());
+		return bits;
+	}
+
+	public static void dispose () {
+		if (archetypes == null) return;
+		for (Archetype archetype : archetypes.values())
+			archetype.dispose();
+		archetypes = null;
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.gdxjam.ecs;
+
+/** Receives a single notification when a batch of entity operations started with {@link EntityManager#beginBatch()} ends. Entity
+ * listeners implement it to merge the work they would otherwise repeat for every entity of the batch. */
+public interface BatchListener {
+
+	public void batchEnded ();
+
+}
@@ -8,7 +8,6 @@ import com.gdxjam.components.FSMComponent;
 import com.gdxjam.components.FactionComponent;
 import com.gdxjam.components.HealthComponent;
 import com.gdxjam.components.ParalaxComponent;
-import com.gdxjam.components.ParticleComponent;
 import com.gdxjam.components.PhysicsComponent;
 import com.gdxjam.components.ProjectileComponent;
 import com.gdxjam.components.ResourceComponent;
@@ -40,7 +39,6 @@ public class Components {
 
 	// Graphics
 	public static final ComponentMapper<SpriteComponent> SPRITE = ComponentMapper.getFor(SpriteComponent.class);
-	public static final ComponentMapper<ParticleComponent> PARTICLE = ComponentMapper.getFor(ParticleComponent.class);
 	public static final ComponentMapper<ParalaxComponent> PARALAX = ComponentMapper.getFor(ParalaxComponent.class);
 
 	// Combat
@@ -0,0 +1,17 @@
+package com.gdxjam.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.gdxjam.components.FactionComponent.Faction;
+
+/** Receives the damage applied by the {@link com.gdxjam.systems.HealthSystem}. Systems that weigh threats or gather statistics
+ * implement it instead of scanning the health of every entity. */
+public interface DamageListener {
+
+	/** Called for every hit on a living target once it has been applied to its health
+	 * @param source the faction that dealt the damage, null if unknown */
+	public void damaged (Entity target, int amount, Faction source);
+
+	/** Called once for an entity whose health ran out, before it is destroyed */
+	public void killed (Entity target, Faction source);
+
+}
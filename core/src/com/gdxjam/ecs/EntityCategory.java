@@ -1,5 +1,7 @@
 package com.gdxjam.ecs;
 
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
 public class EntityCategory {
 	
 	public static final short UNIT = 0x0001;
@@ -9,5 +11,17 @@ public class EntityCategory {
 	public static final short MOTHERSHIP = 0x0010;
 	public static final short WALL = 0x0020;
 	public static final short GRAPHICS = 0x0040;
-	
+
+	/** @return the category bit with the given name as used in data files */
+	public static short valueOf (String name) {
+		if (name.equals("UNIT")) return UNIT;
+		if (name.equals("SQUAD")) return SQUAD;
+		if (name.equals("RESOURCE")) return RESOURCE;
+		if (name.equals("PROJECTILE")) return PROJECTILE;
+		if (name.equals("MOTHERSHIP")) return MOTHERSHIP;
+		if (name.equals("WALL")) return WALL;
+		if (name.equals("GRAPHICS")) return GRAPHICS;
+		throw new GdxRuntimeException("unknown entity category: " + name);
+	}
+
 }
@@ -0,0 +1,143 @@
+package com.gdxjam.ecs;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pool.Poolable;
+
+/** Records structural changes to entities so systems and listeners do not change family membership while they iterate. The
+ * commands are applied by {@link #playback()} at the sync points of {@link EntityManager#update(float)}, sorted by kind: component
+ * removals, component additions, entity creations and finally entity destructions.
+ * <p>
+ * Commands recorded by entity listeners while a batch is played back form the next batch, so the cascades they start are
+ * processed breadth-first. An entity is destroyed at most once per playback and the component commands of an entity destroyed
+ * earlier in the playback are dropped. */
+public class EntityCommandBuffer {
+
+	private static final int REMOVE_COMPONENT = 0;
+	private static final int ADD_COMPONENT = 1;
+	private static final int CREATE = 2;
+	private static final int DESTROY = 3;
+	private static final int KINDS = 4;
+
+	private final Engine engine;
+
+	private Array<Command> commands = new Array<Command>(false, 64);
+	private Array<Command> batch = new Array<Command>(false, 64);
+	private final ObjectSet<Entity> destroyed = new ObjectSet<Entity>();
+	private boolean playing = false;
+
+	private final Pool<Command> commandPool = new Pool<Command>() {
+		@Override
+		protected Command newObject () {
+			return new Command();
+		}
+	};
+
+	public EntityCommandBuffer (Engine engine) {
+		this.engine = engine;
+	}
+
+	/** Adds the entity to the engine at the next sync point */
+	public void create (Entity entity) {
+		record(CREATE, entity, null, null);
+	}
+
+	/** Removes the entity from the engine at the next sync point */
+	public void destroy (Entity entity) {
+		record(DESTROY, entity, null, null);
+	}
+
+	public void add (Entity entity, Component component) {
+		record(ADD_COMPONENT, entity, component, null);
+	}
+
+	public void remove (Entity entity, Class<? extends Component> type) {
+		record(REMOVE_COMPONENT, entity, null, type);
+	}
+
+	private void record (int kind, Entity entity, Component component, Class<? extends Component> type) {
+		Command command = commandPool.obtain();
+		command.kind = kind;
+		command.entity = entity;
+		command.component = component;
+		command.type = type;
+		commands.add(command);
+	}
+
+	/** @return the number of commands waiting for the next sync point */
+	public int size () {
+		return commands.size;
+	}
+
+	/** Applies the recorded commands, including the ones recorded while they are applied */
+	public void playback () {
+		if (playing) return;
+		playing = true;
+
+		while (commands.size > 0) {
+			// Swap the buffers so commands recorded by listeners go to the next batch
+			Array<Command> current = commands;
+			commands = batch;
+			batch = current;
+
+			for (int kind = 0; kind < KINDS; kind++) {
+				for (int i = 0; i < current.size; i++) {
+					Command command = current.get(i);
+					if (command.kind == kind) apply(command);
+				}
+			}
+
+			commandPool.freeAll(current);
+			current.clear();
+		}
+
+		destroyed.clear();
+		playing = false;
+	}
+
+	private void apply (Command command) {
+		Entity entity = command.entity;
+		switch (command.kind) {
+		case REMOVE_COMPONENT:
+			if (!destroyed.contains(entity)) entity.remove(command.type);
+			break;
+		case ADD_COMPONENT:
+			if (!destroyed.contains(entity)) entity.add(command.component);
+			break;
+		case CREATE:
+			// Pooled entities are reused, a created entity is no longer the one that was destroyed
+			destroyed.remove(entity);
+			engine.addEntity(entity);
+			break;
+		case DESTROY:
+			if (destroyed.add(entity)) engine.removeEntity(entity);
+			break;
+		}
+	}
+
+	/** Drops every recorded command without applying it */
+	public void clear () {
+		commandPool.freeAll(commands);
+		commands.clear();
+		destroyed.clear();
+	}
+
+	private static class Command implements Poolable {
+		public int kind;
+		public Entity entity;
+		public Component component;
+		public Class<? extends Component> type;
+
+		@Override
+		public void reset () {
+			entity = null;
+			component = null;
+			type = null;
+		}
+	}
+
+}
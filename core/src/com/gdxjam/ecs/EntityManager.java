@@ -1,9 +1,12 @@
 package com.gdxjam.ecs;
 
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.gdxjam.components.PhysicsComponent;
 import com.gdxjam.components.ResourceComponent;
@@ -17,29 +20,53 @@ import com.gdxjam.systems.FSMSystem;
 import com.gdxjam.systems.GUISystem;
 import com.gdxjam.systems.HealthSystem;
 import com.gdxjam.systems.InputSystem;
+import com.gdxjam.systems.NavigationSystem;
 import com.gdxjam.systems.ParticleSystem;
 import com.gdxjam.systems.PhysicsSystem;
+import com.gdxjam.systems.ProjectileSystem;
 import com.gdxjam.systems.ResourceSystem;
+import com.gdxjam.systems.SpatialIndexSystem;
+import com.gdxjam.systems.SpawnSystem;
 import com.gdxjam.systems.SquadSystem;
 import com.gdxjam.systems.SteeringSystem;
+import com.gdxjam.systems.TargetingSystem;
 import com.gdxjam.systems.WaveSystem;
+import com.gdxjam.systems.WeaponSystem;
 import com.gdxjam.utils.Constants;
 
 public class EntityManager extends PooledEngine implements Disposable {
 	private static String TAG = "[" + EntityManager.class.getSimpleName() + "]";
 
+	private final boolean headless;
+	private int batchDepth = 0;
+	private boolean clearing = false;
+	private Array<BatchListener> batchListeners = new Array<BatchListener>();
+	private final EntityCommandBuffer commands = new EntityCommandBuffer(this);
+	private SystemProfiler profiler;
+
 	public EntityManager() {
+		this(false);
+	}
+
+	/** @param headless when true the engine is created without the input, rendering and GUI systems so it can be run without a
+	 *           display, for example by benchmarks */
+	public EntityManager(boolean headless) {
+		this.headless = headless;
 		initSystems();
 
 		addEntityListener(Family.all(SquadComponent.class).get(),
 				new SquadEntityListener(this, getSystem(InputSystem.class)));
-		addEntityListener(Family.all(UnitComponent.class).get(),
-				new UnitEntityListener(this));
+		UnitEntityListener unitListener = new UnitEntityListener(this);
+		addEntityListener(Family.all(UnitComponent.class).get(), unitListener);
+		addBatchListener(unitListener);
 		addEntityListener(Family.all(PhysicsComponent.class).get(),
 				new PhysicsEntityListener(getSystem(PhysicsSystem.class)));
 		
-		addEntityListener(Family.all(ResourceComponent.class).get(), new ResourceEntityListener(this));
-		addEntityListener(new DebugEntityListener());
+		TargetEntityListener targetListener = new TargetEntityListener(this);
+		addEntityListener(Family.one(UnitComponent.class, SquadComponent.class, ResourceComponent.class).get(), targetListener);
+		addBatchListener(targetListener);
+
+		getSystem(HealthSystem.class).addDamageListener(getSystem(TargetingSystem.class));
 	}
 
 	private EntityManager initSystems() {
@@ -48,25 +75,33 @@ public class EntityManager extends PooledEngine implements Disposable {
 		addSystem(cameraSystem);
 
 		addSystem(new PhysicsSystem());
+		addSystem(new SpatialIndexSystem());
+		addSystem(new NavigationSystem());
 
 		// AI
 		addSystem(new SteeringSystem());
+		addSystem(new TargetingSystem());
 		addSystem(new FSMSystem());
+		addSystem(new WeaponSystem());
+		addSystem(new ProjectileSystem());
 
 		addSystem(new HealthSystem());
 
 
-		GUISystem guiSystem = new GUISystem();
-		InputSystem inputSystem = new InputSystem(guiSystem);
+		GUISystem guiSystem = headless ? null : new GUISystem();
+		InputSystem inputSystem = headless ? null : new InputSystem(guiSystem);
 
 		ResourceSystem resourceSystem = new ResourceSystem(guiSystem);
 		addSystem(resourceSystem);
 		
 		ConstructionSystem constructSystem = new ConstructionSystem(resourceSystem);
 		addSystem(new SquadSystem(inputSystem));
+		addSystem(new SpawnSystem());
 		addSystem(new WaveSystem(guiSystem));
 		addSystem(new DecaySystem());
 
+		if (headless) return this;
+
 		addSystem(inputSystem);
 		// Rendering happens last
 		addSystem(new EntityRenderSystem());
@@ -76,23 +111,155 @@ public class EntityManager extends PooledEngine implements Disposable {
 		return this;
 	}
 
+	public boolean isHeadless() {
+		return headless;
+	}
+
+	/** Starts a batch of entity operations. Listeners that support batching defer their work until the matching
+	 * {@link #endBatch()}. Batches can be nested. */
+	public void beginBatch() {
+		batchDepth++;
+	}
+
+	public void endBatch() {
+		if (batchDepth == 0) {
+			Gdx.app.error(TAG, "endBatch called without a matching beginBatch");
+			return;
+		}
+		if (--batchDepth > 0) return;
+
+		for (int i = 0; i < batchListeners.size; i++) {
+			batchListeners.get(i).batchEnded();
+		}
+	}
+
+	public boolean isBatching() {
+		return batchDepth > 0;
+	}
+
+	/** Adds all entities in a single batch */
+	public void addEntities(Array<Entity> entities) {
+		beginBatch();
+		for (int i = 0; i < entities.size; i++) {
+			addEntity(entities.get(i));
+		}
+		endBatch();
+	}
+
+	public void addBatchListener(BatchListener listener) {
+		batchListeners.add(listener);
+	}
+
+	public void removeBatchListener(BatchListener listener) {
+		batchListeners.removeValue(listener, true);
+	}
+
+	/** Removes every entity in a single batch, dropping the pending commands. Entities and components go back to the engine
+	 * pools, which are kept for the entities of the next match. */
+	public void clearEntities() {
+		commands.clear();
+		clearing = true;
+		beginBatch();
+		removeAllEntities();
+		endBatch();
+		commands.clear();
+		clearing = false;
+	}
+
+	/** @return true while {@link #clearEntities()} runs. Listeners skip the bookkeeping between entities that are all going away. */
+	public boolean isClearing() {
+		return clearing;
+	}
+
+	/** Clears the entities and lets every {@link Restartable} system drop the state of the match, so a new match can be generated
+	 * in this engine. Must not be called while the engine is updating. */
+	public void restart() {
+		clearEntities();
+		ImmutableArray<EntitySystem> systems = getSystems();
+		for (int i = 0; i < systems.size(); i++) {
+			EntitySystem system = systems.get(i);
+			if (system instanceof Restartable) ((Restartable) system).restart();
+		}
+	}
+
+	/** @return the buffer systems and listeners record their structural changes into while the engine is updating */
+	public EntityCommandBuffer getCommands() {
+		return commands;
+	}
+
+	/** Changes recorded since the last update, for example by input handlers, are applied before the systems run and the ones
+	 * recorded by the systems once all of them have been updated. */
 	@Override
 	public void update(float deltaTime) {
+		if (profiler != null) {
+			updateProfiled(deltaTime);
+			return;
+		}
+		playback();
 		super.update(deltaTime);
+		playback();
 //		getSystem(PhysicsSystem.class).drawDebug();
 	}
 
+	/** Plays the recorded commands back as a single batch so listeners handle all the entities of a sync point at once */
+	private void playback() {
+		if (commands.size() == 0) return;
+		beginBatch();
+		commands.playback();
+		endBatch();
+	}
+
+	/** Measures every system with the profiler from the next update on, null stops measuring */
+	public void setProfiler(SystemProfiler profiler) {
+		if (this.profiler != null) this.profiler.detach();
+		this.profiler = profiler;
+		if (profiler != null) profiler.attach(getSystems());
+	}
+
+	/** Runs the engine update once per system with only that system processing, so each one is measured on its own while the
+	 * engine still applies the entity operations after every system as in a normal update. Both playbacks of the commands are
+	 * measured in the playback slot. */
+	private void updateProfiled(float deltaTime) {
+		int playbackIndex = profiler.getPlaybackIndex();
+		profiler.tickStarted();
+		profiler.begin();
+		playback();
+		profiler.end(playbackIndex);
+
+		ImmutableArray<EntitySystem> systems = getSystems();
+		for (int i = 0; i < profiler.getSystemCount(); i++) {
+			EntitySystem measured = profiler.getSystem(i);
+			for (int j = 0; j < systems.size(); j++)
+				systems.get(j).setProcessing(systems.get(j) == measured);
+
+			profiler.begin();
+			super.update(deltaTime);
+			profiler.end(i);
+		}
+		for (int j = 0; j < systems.size(); j++)
+			systems.get(j).setProcessing(true);
+
+		profiler.begin();
+		playback();
+		profiler.end(playbackIndex);
+		profiler.tickEnded();
+	}
+
 	@Override
 	public void dispose() {
 		Gdx.app.log(TAG, "disposing instance");
-		removeAllEntities();
+		clearEntities();
 		clearPools();
-		for (EntitySystem system : getSystems()) {
+		// Systems are removed from a copy since removing them changes the engine's array
+		Array<EntitySystem> systems = new Array<EntitySystem>();
+		for (int i = 0; i < getSystems().size(); i++)
+			systems.add(getSystems().get(i));
+		for (int i = 0; i < systems.size; i++) {
+			EntitySystem system = systems.get(i);
+			removeSystem(system);
 			if (system instanceof Disposable) {
 				((Disposable) system).dispose();
 			}
-			system = null;
-			removeSystem(system);
 		}
 	}
 
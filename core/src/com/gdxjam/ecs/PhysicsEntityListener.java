@@ -2,7 +2,6 @@ package com.gdxjam.ecs;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.EntityListener;
-import com.badlogic.gdx.physics.box2d.Body;
 import com.gdxjam.systems.PhysicsSystem;
 
 public class PhysicsEntityListener implements EntityListener{
@@ -19,8 +18,7 @@ public class PhysicsEntityListener implements EntityListener{
 
 	@Override
 	public void entityRemoved (Entity entity) {
-		Body body = Components.PHYSICS.get(entity).getBody();
-		physicsSystem.destroyBody(body);
+		physicsSystem.destroyBody(Components.PHYSICS.get(entity));
 	}
 
 }
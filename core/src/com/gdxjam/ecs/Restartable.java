@@ -0,0 +1,10 @@
+package com.gdxjam.ecs;
+
+/** A system that keeps state of its own across ticks. It is told when {@link EntityManager#restart()} starts a new match in the
+ * same engine, so it can drop that state while keeping its buffers and pools. */
+public interface Restartable {
+
+	/** Called once every entity of the previous match has been removed */
+	public void restart ();
+
+}
@@ -0,0 +1,185 @@
+package com.gdxjam.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.MathUtils;
+import com.gdxjam.components.SteerableComponent;
+
+/** A uniform grid of steerable agents. Every cell holds a singly linked list of entries that is walked with {@link #getHead(int, int)}
+ * and {@link #getNext(int)}. The grid is cleared and refilled by the {@link com.gdxjam.systems.SpatialIndexSystem} so entries are only
+ * valid for the tick they were inserted in.
+ *
+ * Entries are stored in parallel arrays so a query never allocates. */
+public class SpatialGrid {
+
+	public static final int NONE = -1;
+	private static final int CATEGORY_BITS = 16;
+	private static final int INITIAL_CAPACITY = 256;
+
+	private float cellSize;
+	private int columns;
+	private int rows;
+	private int[] cellHeads;
+
+	private int size = 0;
+	private Entity[] entities = new Entity[INITIAL_CAPACITY];
+	private SteerableComponent[] agents = new SteerableComponent[INITIAL_CAPACITY];
+	private float[] x = new float[INITIAL_CAPACITY];
+	private float[] y = new float[INITIAL_CAPACITY];
+	private float[] radius = new float[INITIAL_CAPACITY];
+	private int[] categories = new int[INITIAL_CAPACITY];
+	private int[] factions = new int[INITIAL_CAPACITY];
+	private int[] next = new int[INITIAL_CAPACITY];
+
+	// The largest bounding radius inserted for each category bit. Queries expand their search by it.
+	private float[] maxRadius = new float[CATEGORY_BITS];
+
+	public SpatialGrid (float width, float height, float cellSize) {
+		resize(width, height, cellSize);
+	}
+
+	public void resize (float width, float height, float cellSize) {
+		this.cellSize = cellSize;
+		columns = Math.max(1, MathUtils.ceil(width / cellSize));
+		rows = Math.max(1, MathUtils.ceil(height / cellSize));
+		cellHeads = new int[columns * rows];
+		clear();
+	}
+
+	public void clear () {
+		for (int i = 0; i < cellHeads.length; i++)
+			cellHeads[i] = NONE;
+		for (int i = 0; i < size; i++) {
+			entities[i] = null;
+			agents[i] = null;
+		}
+		for (int i = 0; i < CATEGORY_BITS; i++)
+			maxRadius[i] = 0;
+		size = 0;
+	}
+
+	/** Inserts an agent into the cell containing its position.
+	 * @param categories the {@link EntityCategory} bits of the entity
+	 * @param faction the ordinal of the entities faction */
+	public void insert (Entity entity, SteerableComponent agent, float x, float y, float radius, int categories, int faction) {
+		if (size == entities.length) grow();
+
+		int index = size++;
+		entities[index] = entity;
+		agents[index] = agent;
+		this.x[index] = x;
+		this.y[index] = y;
+		this.radius[index] = radius;
+		this.categories[index] = categories;
+		this.factions[index] = faction;
+
+		int cell = getCellY(y) * columns + getCellX(x);
+		next[index] = cellHeads[cell];
+		cellHeads[cell] = index;
+
+		for (int i = 0; i < CATEGORY_BITS; i++) {
+			if ((categories & (1 << i)) != 0 && radius > maxRadius[i]) maxRadius[i] = radius;
+		}
+	}
+
+	private void grow () {
+		int capacity = entities.length << 1;
+
+		Entity[] newEntities = new Entity[capacity];
+		System.arraycopy(entities, 0, newEntities, 0, size);
+		entities = newEntities;
+
+		SteerableComponent[] newAgents = new SteerableComponent[capacity];
+		System.arraycopy(agents, 0, newAgents, 0, size);
+		agents = newAgents;
+
+		x = copyOf(x, capacity);
+		y = copyOf(y, capacity);
+		radius = copyOf(radius, capacity);
+		categories = copyOf(categories, capacity);
+		factions = copyOf(factions, capacity);
+		next = copyOf(next, capacity);
+	}
+
+	private float[] copyOf (float[] array, int capacity) {
+		float[] newArray = new float[capacity];
+		System.arraycopy(array, 0, newArray, 0, size);
+		return newArray;
+	}
+
+	private int[] copyOf (int[] array, int capacity) {
+		int[] newArray = new int[capacity];
+		System.arraycopy(array, 0, newArray, 0, size);
+		return newArray;
+	}
+
+	/** @return the cell column containing the x coordinate. Positions outside of the grid are clamped to the border cells. */
+	public int getCellX (float x) {
+		return MathUtils.clamp((int)(x / cellSize), 0, columns - 1);
+	}
+
+	/** @return the cell row containing the y coordinate. Positions outside of the grid are clamped to the border cells. */
+	public int getCellY (float y) {
+		return MathUtils.clamp((int)(y / cellSize), 0, rows - 1);
+	}
+
+	/** @return the first entry of a cell or {@link #NONE} */
+	public int getHead (int cellX, int cellY) {
+		return cellHeads[cellY * columns + cellX];
+	}
+
+	/** @return the next entry in the same cell or {@link #NONE} */
+	public int getNext (int entry) {
+		return next[entry];
+	}
+
+	/** @return the largest bounding radius of any entry matching the category mask */
+	public float getMaxRadius (int categoryMask) {
+		float max = 0;
+		for (int i = 0; i < CATEGORY_BITS; i++) {
+			if ((categoryMask & (1 << i)) != 0 && maxRadius[i] > max) max = maxRadius[i];
+		}
+		return max;
+	}
+
+	/** @return true if the entry matches the category mask and its faction is part of the faction mask */
+	public boolean matches (int entry, int categoryMask, int factionMask) {
+		return (categories[entry] & categoryMask) != 0 && (factionMask & (1 << factions[entry])) != 0;
+	}
+
+	public Entity getEntity (int entry) {
+		return entities[entry];
+	}
+
+	public SteerableComponent getAgent (int entry) {
+		return agents[entry];
+	}
+
+	public float getX (int entry) {
+		return x[entry];
+	}
+
+	public float getY (int entry) {
+		return y[entry];
+	}
+
+	public float getRadius (int entry) {
+		return radius[entry];
+	}
+
+	public int getCategories (int entry) {
+		return categories[entry];
+	}
+
+	public int getFaction (int entry) {
+		return factions[entry];
+	}
+
+	public float getCellSize () {
+		return cellSize;
+	}
+
+	public int getSize () {
+		return size;
+	}
+
+}
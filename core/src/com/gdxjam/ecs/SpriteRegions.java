@@ -0,0 +1,40 @@
+package com.gdxjam.ecs;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/** Shared table of the texture regions drawn for entities. A {@link com.gdxjam.components.SpriteComponent} only keeps the index of
+ * its region in this table, the region itself is shared by every entity using it. */
+public class SpriteRegions {
+
+	private static final Array<TextureRegion> regions = new Array<TextureRegion>();
+	private static final ObjectIntMap<TextureRegion> indices = new ObjectIntMap<TextureRegion>();
+
+	/** @return the index of the region, adding it to the table the first time it is seen */
+	public static int getIndex (TextureRegion region) {
+		int index = indices.get(region, -1);
+		if (index == -1) {
+			index = regions.size;
+			regions.add(region);
+			indices.put(region, index);
+		}
+		return index;
+	}
+
+	public static TextureRegion get (int index) {
+		return regions.get(index);
+	}
+
+	/** @return the handle of the texture the region is on, used to group draws by atlas page */
+	public static int getTexture (int index) {
+		return regions.get(index).getTexture().getTextureObjectHandle();
+	}
+
+	/** Forgets every region, the indices held by existing components become invalid */
+	public static void clear () {
+		regions.clear();
+		indices.clear();
+	}
+
+}
@@ -0,0 +1,212 @@
+package com.gdxjam.ecs;
+
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gdxjam.utils.RuntimeStats;
+
+/** Measures the time spent in each system of an engine. Ashley has no hook around individual system updates, so while a profiler
+ * is set with {@link EntityManager#setProfiler(SystemProfiler)} the engine runs its update once per system with only that system
+ * processing. The systems are still updated by the engine, in their usual order, and the entity operations each of them makes are
+ * applied right after it like in a normal update. The time of a system includes applying its operations. Systems added after the
+ * profiler are not measured.
+ * <p>
+ * The playback of the {@link EntityCommandBuffer} before and after the systems is measured in a slot of its own, following the
+ * slots of the systems and named {@link #PLAYBACK}.
+ * <p>
+ * With {@link #trackAllocations(RuntimeStats)} the bytes each slot allocates are measured as well. Slots registered with
+ * {@link #requireNoAllocation(int)} then fail the update with an exception once they allocate after the steady state tick, which
+ * guards against allocation sites creeping back into the simulation. */
+public class SystemProfiler {
+
+	/** The name of the slot measuring the playback of the entity command buffer */
+	public static final String PLAYBACK = "EntityCommandBuffer";
+
+	private final Array<EntitySystem> systems = new Array<EntitySystem>();
+	private long[] times = new long[0];
+	private long[] lastTimes = new long[0];
+	private long[] bytes = new long[0];
+	private long[] lastBytes = new long[0];
+	private int ticks = 0;
+
+	private RuntimeStats allocationStats;
+	private long probeOverhead = 0;
+	private boolean[] allocationFree = new boolean[0];
+	private int steadyStateTick = 0;
+
+	// Sample of the system being updated
+	private long startTime;
+	private long startBytes;
+
+	/** Called by the engine when the profiler is set */
+	void attach (ImmutableArray<EntitySystem> engineSystems) {
+		systems.clear();
+		for (int i = 0; i < engineSystems.size(); i++)
+			systems.add(engineSystems.get(i));
+		int slots = getSlotCount();
+		times = new long[slots];
+		lastTimes = new long[slots];
+		bytes = new long[slots];
+		lastBytes = new long[slots];
+		allocationFree = new boolean[slots];
+		ticks = 0;
+	}
+
+	/** Called by the engine when the profiler is removed */
+	void detach () {
+		systems.clear();
+		allocationFree = new boolean[0];
+	}
+
+	/** Measures the bytes allocated by each system through the given statistics, null stops measuring. Platforms that can not
+	 * measure allocations leave tracking disabled. */
+	public void trackAllocations (RuntimeStats stats) {
+		allocationStats = stats != null && stats.getAllocatedBytes() >= 0 ? stats : null;
+		if (allocationStats == null) return;
+
+		// Reading the counter may allocate itself, the smallest of a few back to back readings is subtracted from every sample
+		probeOverhead = Long.MAX_VALUE;
+		for (int i = 0; i < 8; i++) {
+			long start = allocationStats.getAllocatedBytes();
+			probeOverhead = Math.min(probeOverhead, allocationStats.getAllocatedBytes() - start);
+		}
+	}
+
+	public boolean isTrackingAllocations () {
+		return allocationStats != null;
+	}
+
+	/** Fails the update when the slot allocates once the steady state tick has been reached. Only checked while allocations are
+	 * tracked. */
+	public void requireNoAllocation (int index) {
+		allocationFree[index] = true;
+	}
+
+	/** @param tick the number of measured updates after which slots registered with {@link #requireNoAllocation(int)} must no
+	 *           longer allocate */
+	public void setSteadyStateTick (int tick) {
+		steadyStateTick = tick;
+	}
+
+	/** Called by the engine before anything of an update is measured */
+	void tickStarted () {
+		for (int i = 0; i < lastTimes.length; i++) {
+			lastTimes[i] = 0;
+			lastBytes[i] = 0;
+		}
+	}
+
+	/** Called by the engine before it updates a system or plays the commands back */
+	void begin () {
+		startBytes = allocationStats != null ? allocationStats.getAllocatedBytes() : 0;
+		startTime = TimeUtils.nanoTime();
+	}
+
+	/** Called by the engine once the system at the index has been updated and its entity operations applied, or the commands have
+	 * been played back. A slot measured more than once in an update adds up the samples. */
+	void end (int index) {
+		long time = TimeUtils.nanoTime() - startTime;
+		lastTimes[index] += time;
+		times[index] += time;
+
+		if (allocationStats != null) {
+			long allocated = Math.max(0, allocationStats.getAllocatedBytes() - startBytes - probeOverhead);
+			lastBytes[index] += allocated;
+			bytes[index] += allocated;
+			checkAllocation(index, allocated);
+		}
+	}
+
+	/** Called by the engine once every system has been updated */
+	void tickEnded () {
+		ticks++;
+	}
+
+	private void checkAllocation (int index, long allocated) {
+		if (allocated == 0 || ticks < steadyStateTick || !allocationFree[index]) return;
+		throw new GdxRuntimeException(getSlotName(index) + " allocated " + allocated + " bytes on tick " + ticks
+			+ " after reaching its steady state");
+	}
+
+	public int getSystemCount () {
+		return systems.size;
+	}
+
+	public EntitySystem getSystem (int index) {
+		return systems.get(index);
+	}
+
+	/** @return the number of measured slots, one per system followed by the playback slot */
+	public int getSlotCount () {
+		return systems.size + 1;
+	}
+
+	/** @return the index of the slot measuring the playback of the entity command buffer */
+	public int getPlaybackIndex () {
+		return systems.size;
+	}
+
+	/** @return the simple class name of the system measured in the slot or {@link #PLAYBACK} */
+	public String getSlotName (int index) {
+		return index == systems.size ? PLAYBACK : systems.get(index).getClass().getSimpleName();
+	}
+
+	/** @return the index of the slot with the given name, -1 if there is none */
+	public int indexOfSlot (String name) {
+		for (int i = 0; i < getSlotCount(); i++)
+			if (getSlotName(i).equals(name)) return i;
+		return -1;
+	}
+
+	/** @return the nanoseconds spent in the slot since the profiler was added or last reset */
+	public long getTotalTime (int index) {
+		return times[index];
+	}
+
+	/** @return the nanoseconds spent in the slot during the last update */
+	public long getLastTime (int index) {
+		return lastTimes[index];
+	}
+
+	/** @return the bytes allocated by the slot since the profiler was added or last reset */
+	public long getTotalBytes (int index) {
+		return bytes[index];
+	}
+
+	/** @return the bytes allocated by the slot during the last update */
+	public long getLastBytes (int index) {
+		return lastBytes[index];
+	}
+
+	/** Fills the array with the indices of the slots that allocated, the biggest allocator first */
+	public IntArray getTopAllocators (IntArray out) {
+		out.clear();
+		for (int i = 0; i < times.length; i++) {
+			if (bytes[i] == 0) continue;
+			int index = out.size;
+			while (index > 0 && bytes[out.get(index - 1)] < bytes[i])
+				index--;
+			out.insert(index, i);
+		}
+		return out;
+	}
+
+	/** @return the number of updates measured since the profiler was added or last reset */
+	public int getTicks () {
+		return ticks;
+	}
+
+	public void reset () {
+		for (int i = 0; i < times.length; i++) {
+			times[i] = 0;
+			lastTimes[i] = 0;
+			bytes[i] = 0;
+			lastBytes[i] = 0;
+		}
+		ticks = 0;
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.gdxjam.ecs;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.gdxjam.ai.state.TelegramMessage;
+import com.gdxjam.components.FSMComponent;
+import com.gdxjam.components.SquadComponent;
+import com.gdxjam.components.SteerableComponent;
+import com.gdxjam.components.TargetComponent;
+
+/** Drops the references squads and units hold to removed units, squads and resources. The entities removed during a batch, such
+ * as every death of a tick played back by the {@link EntityCommandBuffer}, are cleared in a single pass over the squads and the
+ * targeting entities when the batch ends instead of one pass per removed entity. */
+public class TargetEntityListener implements EntityListener, BatchListener {
+
+	private final EntityManager engine;
+	private final ImmutableArray<Entity> squads;
+	private final ImmutableArray<Entity> targeting;
+
+	// Removed entities go back to the pool right away, their steerables are kept to find them in the agent arrays
+	private final ObjectSet<Entity> removed = new ObjectSet<Entity>();
+	private final ObjectSet<Steerable<Vector2>> removedAgents = new ObjectSet<Steerable<Vector2>>();
+
+	public TargetEntityListener (EntityManager engine) {
+		this.engine = engine;
+		squads = engine.getEntitiesFor(Family.all(SquadComponent.class).get());
+		targeting = engine.getEntitiesFor(Family.all(TargetComponent.class).get());
+	}
+
+	@Override
+	public void entityAdded (Entity entity) {
+	}
+
+	@Override
+	public void entityRemoved (Entity entity) {
+		// Nothing is left to reference the entities of a cleared engine
+		if (engine.isClearing()) return;
+
+		removed.add(entity);
+		SteerableComponent steerable = Components.STEERABLE.get(entity);
+		if (steerable != null) removedAgents.add(steerable);
+		if (!engine.isBatching()) batchEnded();
+	}
+
+	@Override
+	public void batchEnded () {
+		if (removed.size == 0) return;
+
+		// Squads stop tracking first so the ones told below that their target is gone pick among the remaining entities
+		for (int i = 0; i < squads.size(); i++)
+			Components.SQUAD.get(squads.get(i)).untrackAll(removed, removedAgents);
+
+		for (int i = 0; i < targeting.size(); i++) {
+			Entity entity = targeting.get(i);
+			TargetComponent targetComp = Components.TARGET.get(entity);
+			Entity target = targetComp.getTarget();
+			if (target == null || !removed.contains(target)) continue;
+
+			targetComp.setTarget(null);
+			FSMComponent fsm = Components.FSM.get(entity);
+			if (fsm != null) MessageManager.getInstance().dispatchMessage(null, fsm, TelegramMessage.TARGET_REMOVED.ordinal(), target);
+		}
+
+		removed.clear();
+		removedAgents.clear();
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.gdxjam.ecs;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.IntArray;
+
+/** Dense copy of the Box2D transforms of every registered body. The {@link com.gdxjam.systems.PhysicsSystem} refreshes it once
+ * after each world step so that steering, AI and rendering can read positions, angles and velocities from plain float arrays
+ * instead of making JNI calls through {@link Body}.
+ *
+ * Every body is given a stable slot when it is registered. Slots are recycled once the body is unregistered. */
+public class TransformMirror {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private Body[] bodies = new Body[INITIAL_CAPACITY];
+	private float[] x = new float[INITIAL_CAPACITY];
+	private float[] y = new float[INITIAL_CAPACITY];
+	private float[] angle = new float[INITIAL_CAPACITY];
+	private float[] velocityX = new float[INITIAL_CAPACITY];
+	private float[] velocityY = new float[INITIAL_CAPACITY];
+
+	private IntArray freeSlots = new IntArray();
+	private int size = 0;
+	private int count = 0;
+
+	/** Registers a body with the mirror and copies its current transform.
+	 * @return the slot the body will occupy until it is unregistered */
+	public int register (Body body) {
+		int slot;
+		if (freeSlots.size > 0) {
+			slot = freeSlots.pop();
+		} else {
+			if (size == bodies.length) grow();
+			slot = size++;
+		}
+
+		bodies[slot] = body;
+		count++;
+		refresh(slot);
+		return slot;
+	}
+
+	public void unregister (int slot) {
+		if (slot < 0 || bodies[slot] == null) return;
+		bodies[slot] = null;
+		freeSlots.add(slot);
+		count--;
+	}
+
+	/** Copies the transform of every awake body. Sleeping and static bodies do not move so their last values are kept. */
+	public void update () {
+		for (int i = 0; i < size; i++) {
+			Body body = bodies[i];
+			if (body == null || !body.isAwake()) continue;
+			read(i, body);
+		}
+	}
+
+	/** Forces the transform of a single slot to be copied. Used when a body was moved outside of the world step. */
+	public void refresh (int slot) {
+		read(slot, bodies[slot]);
+	}
+
+	private void read (int slot, Body body) {
+		Vector2 position = body.getPosition();
+		x[slot] = position.x;
+		y[slot] = position.y;
+		angle[slot] = body.getAngle();
+		Vector2 velocity = body.getLinearVelocity();
+		velocityX[slot] = velocity.x;
+		velocityY[slot] = velocity.y;
+	}
+
+	private void grow () {
+		int capacity = bodies.length << 1;
+
+		Body[] newBodies = new Body[capacity];
+		System.arraycopy(bodies, 0, newBodies, 0, size);
+		bodies = newBodies;
+
+		x = copyOf(x, capacity);
+		y = copyOf(y, capacity);
+		angle = copyOf(angle, capacity);
+		velocityX = copyOf(velocityX, capacity);
+		velocityY = copyOf(velocityY, capacity);
+	}
+
+	private float[] copyOf (float[] array, int capacity) {
+		float[] newArray = new float[capacity];
+		System.arraycopy(array, 0, newArray, 0, size);
+		return newArray;
+	}
+
+	public float getX (int slot) {
+		return x[slot];
+	}
+
+	public float getY (int slot) {
+		return y[slot];
+	}
+
+	public float getAngle (int slot) {
+		return angle[slot];
+	}
+
+	public Vector2 getPosition (int slot, Vector2 out) {
+		return out.set(x[slot], y[slot]);
+	}
+
+	public Vector2 getLinearVelocity (int slot, Vector2 out) {
+		return out.set(velocityX[slot], velocityY[slot]);
+	}
+
+	/** Writes an angle through to the mirror after the body was rotated with {@link Body#setTransform(Vector2, float)} */
+	public void setAngle (int slot, float angle) {
+		this.angle[slot] = angle;
+	}
+
+	/** @return the number of registered bodies */
+	public int getCount () {
+		return count;
+	}
+
+}
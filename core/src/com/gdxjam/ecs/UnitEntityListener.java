@@ -2,46 +2,58 @@ package com.gdxjam.ecs;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.EntityListener;
-import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.gdxjam.components.SquadComponent;
 import com.gdxjam.components.UnitComponent;
 import com.gdxjam.systems.GUISystem;
-import com.gdxjam.utils.EntityUtils;
 
-public class UnitEntityListener implements EntityListener{
+public class UnitEntityListener implements EntityListener, BatchListener{
 
-	private PooledEngine engine;
+	private EntityManager engine;
 	private GUISystem guiSystem;
 	
-	public UnitEntityListener (PooledEngine engine) {
+	//Squads that gained units during the current batch, each one is updated once when the batch ends
+	private ObjectSet<Entity> pendingSquads = new ObjectSet<Entity>();
+	
+	public UnitEntityListener (EntityManager engine) {
 		this.engine = engine;
 		this.guiSystem = engine.getSystem(GUISystem.class);
 	}
 	
 	@Override
 	public void entityAdded (Entity entity) {
+		if(guiSystem == null) return;
 		UnitComponent unitComp = Components.UNIT.get(entity);
-		guiSystem.updateSquad(unitComp.getSquad());
+		if(engine.isBatching())
+			pendingSquads.add(unitComp.getSquad());
+		else
+			guiSystem.updateSquad(unitComp.getSquad());
+	}
+	
+	@Override
+	public void batchEnded () {
+		for(Entity squad : pendingSquads){
+			guiSystem.updateSquad(squad);
+		}
+		pendingSquads.clear();
 	}
 
 	@Override
 	public void entityRemoved (Entity entity) {
+		// The squads may already be gone and nothing is left to retarget
+		if(engine.isClearing()) return;
 		UnitComponent unitComp = Components.UNIT.get(entity);
 		SquadComponent squadComp = Components.SQUAD.get(unitComp.getSquad());
 		
 		squadComp.removeMember(entity);
 
-		//First we check if the units squad has lost all its members
-		//If so we remove it from all squads targets so when the unit trys to find a new target
-		//The squad knows that its previous target is dead
+		//A squad that lost all its members is removed with them, the targets on both are cleared by the TargetEntityListener
 		if(squadComp.members.size <= 0){
 			Entity squad = unitComp.getSquad();
-			EntityUtils.clearTarget(squad);
-			engine.removeEntity(squad);
+			pendingSquads.remove(squad);
+			engine.getCommands().destroy(squad);
 		}
 		
-		EntityUtils.clearTarget(entity);
-		
 	}
 	
 
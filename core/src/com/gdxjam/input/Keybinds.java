@@ -21,5 +21,7 @@ public class Keybinds {
 	
 	public static final int SELECTION_INCREASE = Keys.SHIFT_LEFT;
 	public static final int SELECTION_DECREASE = Keys.ALT_LEFT;
+	
+	public static final int METRICS_TOGGLE = Keys.F3;
 
 }
@@ -2,6 +2,7 @@ package com.gdxjam.screens;
 
 import java.util.Random;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.input.GestureDetector;
 import com.gdxjam.GameManager;
@@ -10,10 +11,8 @@ import com.gdxjam.GameManager.GameConfig.BUILD;
 import com.gdxjam.ecs.EntityManager;
 import com.gdxjam.input.DesktopGestureListener;
 import com.gdxjam.input.DeveloperInputProcessor;
-import com.gdxjam.systems.CameraSystem;
 import com.gdxjam.systems.GUISystem;
 import com.gdxjam.systems.InputSystem;
-import com.gdxjam.utils.WorldGenerator;
 import com.gdxjam.utils.WorldGenerator.WorldGeneratorParameter;
 
 public class GameScreen extends AbstractScreen {
@@ -26,8 +25,17 @@ public class GameScreen extends AbstractScreen {
 
 	@Override
 	public void show() {
+		// Retrying after a game over reuses the engine of the previous match along with its pools
+		if (GameManager.hasEngine()) {
+			engine = GameManager.getEngine();
+			GameManager.restartMatch(new Random().nextLong(), createParameter());
+			multiplexer = engine.getSystem(InputSystem.class).getMultiplexer();
+			Gdx.input.setInputProcessor(multiplexer);
+			return;
+		}
+
 		engine = GameManager.initEngine();
-		createWorld(256, 256);;
+		createWorld(256, 256);
 		
 		multiplexer = engine.getSystem(InputSystem.class).getMultiplexer();
 		multiplexer.addProcessor(engine.getSystem(GUISystem.class).getStage());
@@ -42,17 +50,14 @@ public class GameScreen extends AbstractScreen {
 
 	public void createWorld(int width, int height) {
 		long seed = new Random().nextLong();
+		GameManager.generateWorld(width, height, seed, createParameter());
+	}
+
+	private WorldGeneratorParameter createParameter() {
 		WorldGeneratorParameter param = new WorldGeneratorParameter();
 		param.initalSquads = 5;
 		param.squadMembers = 9;
-		WorldGenerator generator = new WorldGenerator(width, height, seed,
-				param);
-		generator.generate();
-
-		engine.getSystem(CameraSystem.class).getCamera().position.set(
-				width * 0.5f, height * 0.5f, 0);
-		engine.getSystem(CameraSystem.class).setWorldBounds(width, height);
-
+		return param;
 	}
 
 	@Override
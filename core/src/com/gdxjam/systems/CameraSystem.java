@@ -2,6 +2,7 @@ package com.gdxjam.systems;
 
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
@@ -19,6 +20,8 @@ public class CameraSystem extends EntitySystem {
 	private IntMap<ParalaxLayer> paralaxLayers = new IntMap<CameraSystem.ParalaxLayer>();
 	private Viewport viewport;
 	private Vector2 target;
+	private final Vector3 tmpPosition = new Vector3();
+	private final Vector2 worldCords = new Vector2();
 	boolean smooth = false;
 	
 	private float minZoom;
@@ -62,8 +65,7 @@ public class CameraSystem extends EntitySystem {
 	public void update(float deltaTime) {
 		super.update(deltaTime);
 		if (smooth && target != null) {
-			camera.position.add(camera.position.cpy().scl(-1)
-					.add(target.x, target.y, 0).scl(0.04f));
+			camera.position.lerp(tmpPosition.set(target.x, target.y, 0), 0.04f);
 		}
 	}
 
@@ -75,14 +77,19 @@ public class CameraSystem extends EntitySystem {
 		return paralaxLayers.get(layer).getCamera();
 	}
 
+	/** @return how many screen pixels one world unit spans at the current zoom */
+	public float getPixelsPerUnit() {
+		return Gdx.graphics.getWidth() / (camera.viewportWidth * camera.zoom);
+	}
+
 	public Viewport getViewport() {
 		return viewport;
 	}
 
+	/** @return the world position under the screen coordinates. The vector is reused by the next call. */
 	public Vector2 screenToWorldCords(float screenX, float screenY) {
-		Vector3 pos = new Vector3(screenX, screenY, 0);
-		pos.set(camera.unproject(pos));
-		return new Vector2(pos.x, pos.y);
+		camera.unproject(tmpPosition.set(screenX, screenY, 0));
+		return worldCords.set(tmpPosition.x, tmpPosition.y);
 	}
 
 	// Camera Controller Methods
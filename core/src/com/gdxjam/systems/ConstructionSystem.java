@@ -35,7 +35,7 @@ public class ConstructionSystem implements Telegraph {
 
 	@Override
 	public boolean handleMessage (Telegram msg) {
-		TelegramMessage telegramMsg = TelegramMessage.values()[msg.message];
+		TelegramMessage telegramMsg = TelegramMessage.get(msg.message);
 		switch (telegramMsg) {
 
 		case CONSTRUCT_UNIT_REQUEST:
@@ -3,15 +3,15 @@ package com.gdxjam.systems;
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.core.PooledEngine;
 import com.badlogic.ashley.systems.IteratingSystem;
 import com.gdxjam.GameManager;
 import com.gdxjam.components.DecayComponent;
 import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityManager;
 
 public class DecaySystem extends IteratingSystem{
 	
-	private PooledEngine engine;
+	private EntityManager engine;
 
 	public DecaySystem () {
 		super(Family.all(DecayComponent.class).get());
@@ -20,7 +20,7 @@ public class DecaySystem extends IteratingSystem{
 	@Override
 	public void addedToEngine (Engine engine) {
 		super.addedToEngine(engine);
-		this.engine = (PooledEngine) engine;
+		this.engine = (EntityManager) engine;
 	}
 
 	@Override
@@ -28,14 +28,14 @@ public class DecaySystem extends IteratingSystem{
 		DecayComponent decayComp = Components.DECAY.get(entity);
 		
 		if(decayComp.elapsed >= decayComp.decayTime)
-			engine.removeEntity(entity);
+			engine.getCommands().destroy(entity);
 		 else
 			decayComp.elapsed += deltaTime;
 	}
 	
 	@Override
 	public boolean checkProcessing () {
-		return !GameManager.isPaused();
+		return super.checkProcessing() && !GameManager.isPaused();
 	}
 	
 }
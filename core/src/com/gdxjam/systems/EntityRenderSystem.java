@@ -11,84 +11,118 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.gdxjam.GameContext;
+import com.gdxjam.components.FactionComponent.Faction;
 import com.gdxjam.components.HealthComponent;
 import com.gdxjam.components.ParalaxComponent;
 import com.gdxjam.components.PhysicsComponent;
 import com.gdxjam.components.ResourceComponent;
 import com.gdxjam.components.SpriteComponent;
 import com.gdxjam.components.SquadComponent;
+import com.gdxjam.ecs.Archetype;
+import com.gdxjam.ecs.Archetypes;
 import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityCategory;
+import com.gdxjam.ecs.SpriteRegions;
+import com.gdxjam.ecs.TransformMirror;
+import com.gdxjam.utils.Constants;
 
 public class EntityRenderSystem extends SortedIteratingSystem implements Disposable {
 	private static final String TAG = "[" + EntityRenderSystem.class.getSimpleName() + "]";
 	private static final int spriteRotationOffset = -0;
 	private static final float healthBarHeight = 0.15f;
+	private static final float impostorScale = 2.0f;
+	private static final float impostorBarHeight = 1.0f;
 
 	private SpriteBatch batch;
 	private ShapeRenderer shapeRenderer;
 	private CameraSystem cameraSystem;
+	private ProjectileSystem projectileSystem;
+	private StaticSpriteLayer staticLayer;
+	private Archetype unitArchetype;
+	private final Faction[] factions = Faction.values();
+	private final TextureRegion[] squadIcons = new TextureRegion[factions.length];
+	// True while zoomed out past the impostor threshold, squads are drawn as a single icon and units are skipped
+	private boolean impostors = false;
 	private int currentLayer = -10;
 	
 	//Used for log / debug
 	private static boolean cullFustrum = false;
-	private static int drawnEntities = 0;
+	private int drawnEntities = 0;
+	private int renderCalls = 0;
 
 	public EntityRenderSystem () {
-		super(Family.one(SpriteComponent.class, SquadComponent.class).get(), new Comparator<Entity>() {
-
-			@Override
-			public int compare (Entity e1, Entity e2) {
-				if (Components.PARALAX.has(e1) && Components.PARALAX.has(e2)) {
-					ParalaxComponent p1 = Components.PARALAX.get(e1);
-					ParalaxComponent p2 = Components.PARALAX.get(e2);
-					return p1.layer < p2.layer ? 1 : 0;
-				} else if (Components.PARALAX.has(e1) || Components.PARALAX.has(e2)) {
-					return Components.PARALAX.has(e1) ? -1 : 1;
-				} else {
-					return 0;
-				}
+		super(Family.one(SpriteComponent.class, SquadComponent.class).get(), new DrawOrderComparator());
 
-			}
-		});
-
-		batch = new SpriteBatch();
-		shapeRenderer = new ShapeRenderer();
+		batch = GameContext.getBatch();
+		shapeRenderer = GameContext.getShapeRenderer();
+		staticLayer = new StaticSpriteLayer();
 	}
 
 	@Override
 	public void addedToEngine (Engine engine) {
 		super.addedToEngine(engine);
 		cameraSystem = engine.getSystem(CameraSystem.class);
+		projectileSystem = engine.getSystem(ProjectileSystem.class);
+		unitArchetype = Archetypes.get("unit");
+		engine.addEntityListener(Family.all(SpriteComponent.class).get(), staticLayer);
+	}
+
+	@Override
+	public void removedFromEngine (Engine engine) {
+		super.removedFromEngine(engine);
+		engine.removeEntityListener(staticLayer);
 	}
 
 	@Override
 	public void update (float deltaTime) {
 		//Sets the drawn entities counter to 0 for logging purposes
 		drawnEntities = 0;
-		
+		impostors = cameraSystem.getPixelsPerUnit() < Constants.impostorPixelsPerUnit;
+
+		// Asteroids and parallax art are drawn from their caches, below everything the batch draws
+		staticLayer.draw(cameraSystem);
+
 		currentLayer = 0;
 		batch.setProjectionMatrix(cameraSystem.getParalaxCamera(currentLayer).combined);
 		batch.begin();
 		shapeRenderer.setProjectionMatrix(cameraSystem.getCamera().combined);
 		shapeRenderer.begin(ShapeType.Filled);
 		super.update(deltaTime);
+
+		// Projectiles are not entities, they are all drawn in one pass on top of the world
+		if (projectileSystem != null) {
+			batch.setProjectionMatrix(cameraSystem.getCamera().combined);
+			projectileSystem.draw(batch);
+		}
 		batch.end();
 		shapeRenderer.end();
-		
-		//Displays the amount of entities that are being drawn
-//		Gdx.app.debug(TAG, "drawn entities: " + drawnEntities);
+		renderCalls = batch.renderCalls + staticLayer.getRenderCalls();
+	}
+
+	/** @return the number of sprites drawn during the last update */
+	public int getDrawnEntities () {
+		return drawnEntities;
+	}
+
+	/** @return the number of draw calls made during the last update, the flushes of the sprite batch and the cached chunks of the
+	 *         {@link StaticSpriteLayer} */
+	public int getRenderCalls () {
+		return renderCalls;
 	}
 
 	@Override
 	protected void processEntity (Entity entity, float deltaTime) {
 		if(Components.SQUAD.has(entity)){
+			if (impostors) drawImpostor(entity);
 //			Vector2 position = Components.STEERABLE.get(entity).getPosition();
 //			Gdx.gl20.glEnable(GL20.GL_BLEND);
 //			Gdx.gl20.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
@@ -101,7 +135,36 @@ public class EntityRenderSystem extends SortedIteratingSystem implements Disposa
 			return;
 		}
 		
-		Sprite sprite = Components.SPRITE.get(entity).getSprite();
+		// Units are summarised by the icon of their squad
+		if (impostors && (entity.flags & EntityCategory.UNIT) != 0) return;
+
+		SpriteComponent spriteComp = Components.SPRITE.get(entity);
+		float width = spriteComp.getWidth();
+		float height = spriteComp.getHeight();
+		float x, y, rotation = 0;
+		ParalaxComponent paralaxComp = Components.PARALAX.get(entity);
+		PhysicsComponent physics = Components.PHYSICS.get(entity);
+		if (paralaxComp != null) {
+			x = paralaxComp.worldX;
+			y = paralaxComp.worldY;
+		} else if (physics != null) {
+			TransformMirror transforms = physics.getTransforms();
+			int slot = physics.getSlot();
+			x = transforms.getX(slot) - width * 0.5f;
+			y = transforms.getY(slot) - height * 0.5f;
+			rotation = (MathUtils.radiansToDegrees * transforms.getAngle(slot)) + spriteRotationOffset;
+		} else {
+			// Nothing places the sprite
+			return;
+		}
+
+		if (staticLayer.contains(entity)) {
+			// The sprite is already drawn by the static layer, only its status bars are left. Zoomed out the merged chunks
+			// are all there is to draw
+			if (!impostors) drawStatus(entity, x, y, width, height);
+			return;
+		}
+
 		OrthographicCamera camera;
 		if(currentLayer >= 0){
 			camera = cameraSystem.getParalaxCamera(currentLayer);
@@ -112,36 +175,67 @@ public class EntityRenderSystem extends SortedIteratingSystem implements Disposa
 		}
 		
 		// Only renderer if the sprite is in the fustrum of the camera
-		if (cullFustrum && !camera.frustum.boundsInFrustum(sprite.getX(), sprite.getY(), 0.0f, sprite.getWidth() * 0.5f,
-			sprite.getHeight() * 0.5f, 0.0f)){
+		if (cullFustrum && !camera.frustum.boundsInFrustum(x + width * 0.5f, y + height * 0.5f, 0.0f, width * 0.5f,
+			height * 0.5f, 0.0f)){
 			return;
 		}
 			
-		if (Components.PARALAX.has(entity)) {
-			ParalaxComponent paralaxComp = Components.PARALAX.get(entity);
+		if (paralaxComp != null) {
 			if (currentLayer != paralaxComp.layer) {
 				batch.setProjectionMatrix(cameraSystem.getParalaxCamera(paralaxComp.layer).combined);
 				currentLayer = paralaxComp.layer;
 			}
 
-		} else {
-			
-				if (currentLayer != -1) {
-					batch.setProjectionMatrix(cameraSystem.getCamera().combined);
-					currentLayer = -1;
-				}
-				if (Components.PHYSICS.has(entity)) {
-					PhysicsComponent physics = Components.PHYSICS.get(entity);
-					Vector2 pos = physics.getBody().getPosition();
-					sprite.setCenter(pos.x, pos.y);
-					sprite.setRotation((MathUtils.radiansToDegrees * physics.getBody().getAngle()) + spriteRotationOffset);
-			}
+		} else if (currentLayer != -1) {
+			batch.setProjectionMatrix(cameraSystem.getCamera().combined);
+			currentLayer = -1;
 		}
 
-		
-		
-		sprite.draw(batch);
+		// The vertices are written straight into the batch from the shared region and the mirrored transform
+		batch.draw(SpriteRegions.get(spriteComp.getRegion()), x, y, width * 0.5f, height * 0.5f, width, height, 1, 1, rotation);
+		drawnEntities++;
+		drawStatus(entity, x, y, width, height);
+	}
+
+	/** Draws the squad as one icon sized by its member count, with a bar showing the health left across its members */
+	private void drawImpostor (Entity squad) {
+		Array<Entity> members = Components.SQUAD.get(squad).members;
+		int count = 0;
+		int health = 0;
+		int maxHealth = 0;
+		for (int i = 0; i < members.size; i++) {
+			HealthComponent healthComp = Components.HEALTH.get(members.get(i));
+			if (healthComp == null) continue;
+			count++;
+			health += Math.max(healthComp.value, 0);
+			maxHealth += healthComp.max;
+		}
+		if (count == 0) return;
+
+		if (currentLayer != -1) {
+			batch.setProjectionMatrix(cameraSystem.getCamera().combined);
+			currentLayer = -1;
+		}
+
+		Faction faction = Components.FACTION.get(squad).getFaction();
+		if (squadIcons[faction.ordinal()] == null) squadIcons[faction.ordinal()] = unitArchetype.getRegion(faction);
+
+		Vector2 position = Components.STEERABLE.get(squad).getPosition();
+		float size = Constants.unitRadius * 2 * impostorScale * (float)Math.sqrt(count);
+		float x = position.x - size * 0.5f;
+		float y = position.y - size * 0.5f;
+		batch.draw(squadIcons[faction.ordinal()], x, y, size, size);
+		drawnEntities++;
+
+		float percent = (float)health / (float)maxHealth;
+		shapeRenderer.setColor(Color.RED);
+		shapeRenderer.rect(x, y + size, size, impostorBarHeight);
+		shapeRenderer.setColor(Color.GREEN);
+		shapeRenderer.rect(x, y + size, size * percent, impostorBarHeight);
+	}
 
+	/** Draws the health and resource bars above the sprite with the given bottom left corner and size */
+	private void drawStatus (Entity entity, float x, float y, float width, float height) {
 		// NOTE: If an entity has health but no sprite this will not get drawn
 		if (Components.HEALTH.has(entity)) {
 			HealthComponent healthComp = Components.HEALTH.get(entity);
@@ -149,9 +243,9 @@ public class EntityRenderSystem extends SortedIteratingSystem implements Disposa
 				float percent = (float)healthComp.value / (float)healthComp.max;
 //				shapeRenderer.begin(ShapeType.Filled);
 				shapeRenderer.setColor(Color.RED);
-				shapeRenderer.rect(sprite.getX(), sprite.getY() + sprite.getHeight(), sprite.getWidth(), healthBarHeight);
+				shapeRenderer.rect(x, y + height, width, healthBarHeight);
 				shapeRenderer.setColor(Color.GREEN);
-				shapeRenderer.rect(sprite.getX(), sprite.getY() + sprite.getHeight(), sprite.getWidth() * percent, healthBarHeight);
+				shapeRenderer.rect(x, y + height, width * percent, healthBarHeight);
 //				shapeRenderer.end();
 			}
 		}
@@ -165,9 +259,9 @@ public class EntityRenderSystem extends SortedIteratingSystem implements Disposa
 				float percent = (float)resourceComp.value / (float)resourceComp.capactiy.max();
 //				shapeRenderer.begin(ShapeType.Filled);
 				shapeRenderer.setColor(Color.ORANGE);
-				shapeRenderer.rect(sprite.getX(), sprite.getY() + sprite.getHeight(), sprite.getWidth(), healthBarHeight);
+				shapeRenderer.rect(x, y + height, width, healthBarHeight);
 				shapeRenderer.setColor(Color.BLUE);
-				shapeRenderer.rect(sprite.getX(), sprite.getY() + sprite.getHeight(), sprite.getWidth() * percent, healthBarHeight);
+				shapeRenderer.rect(x, y + height, width * percent, healthBarHeight);
 //				shapeRenderer.end();
 			}
 		}
@@ -176,7 +270,43 @@ public class EntityRenderSystem extends SortedIteratingSystem implements Disposa
 	
 	@Override
 	public void dispose () {
-		batch.dispose();
+		// The batch and shape renderer belong to the context
+		staticLayer.dispose();
+	}
+
+	/** Orders the sprites so the batch only flushes when it has to. Parallax layers are drawn first, from the background up, then
+	 * the world from asteroids to ships to projectiles. Within each of these layers sprites are grouped by the atlas page they are
+	 * on, the atlas spans several textures and every switch between them flushes the batch. */
+	private static class DrawOrderComparator implements Comparator<Entity> {
+
+		private static final int WORLD_LAYER = 1 << 16;
+
+		@Override
+		public int compare (Entity e1, Entity e2) {
+			int layer1 = getLayer(e1);
+			int layer2 = getLayer(e2);
+			if (layer1 != layer2) return layer1 < layer2 ? -1 : 1;
+
+			int texture1 = getTexture(e1);
+			int texture2 = getTexture(e2);
+			return texture1 < texture2 ? -1 : (texture1 == texture2 ? 0 : 1);
+		}
+
+		private int getLayer (Entity entity) {
+			ParalaxComponent paralax = Components.PARALAX.get(entity);
+			// The background is parallax layer 0 and planets are drawn over it, all of them before the world
+			if (paralax != null) return paralax.layer;
+
+			if ((entity.flags & EntityCategory.RESOURCE) != 0) return WORLD_LAYER;
+			if ((entity.flags & EntityCategory.PROJECTILE) != 0) return WORLD_LAYER + 2;
+			return WORLD_LAYER + 1;
+		}
+
+		private int getTexture (Entity entity) {
+			SpriteComponent spriteComp = Components.SPRITE.get(entity);
+			if (spriteComp == null) return 0;
+			return SpriteRegions.getTexture(spriteComp.getRegion());
+		}
 	}
 
 }
@@ -22,6 +22,6 @@ public class FSMSystem extends IteratingSystem {
     
  	@Override
  	public boolean checkProcessing () {
- 		return !GameManager.isPaused();
+ 		return super.checkProcessing() && !GameManager.isPaused();
  	}
 }
@@ -16,9 +16,11 @@ import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.Timer;
 import com.badlogic.gdx.utils.Timer.Task;
 import com.gdxjam.Assets;
+import com.gdxjam.GameContext;
 import com.gdxjam.ai.state.TelegramMessage;
 import com.gdxjam.components.SquadComponent.FormationPatternType;
 import com.gdxjam.ui.CommandCardContainer;
+import com.gdxjam.ui.MetricsOverlay;
 import com.gdxjam.ui.WaveTimerTable;
 
 public class GUISystem extends EntitySystem implements Telegraph, Disposable {
@@ -29,6 +31,7 @@ public class GUISystem extends EntitySystem implements Telegraph, Disposable {
 	private CommandCardContainer commandCardContainer;
 	private WaveTimerTable waveTimerTable;
 	private Label resourceLabel;
+	private MetricsOverlay metricsOverlay;
 
 	private InputSystem inputSystem;
 	
@@ -39,7 +42,9 @@ public class GUISystem extends EntitySystem implements Telegraph, Disposable {
 	private static final Color ALERT_COLOR = Color.RED;
 
 	public GUISystem () {
-		this.stage = new Stage();
+		// The stage is kept by the context, the actors of the previous match are dropped
+		this.stage = GameContext.getStage();
+		stage.clear();
 		this.skin = Assets.skin;
 		
 		MessageManager.getInstance().addListener(this, TelegramMessage.SQUAD_INPUT_SELECTED.ordinal());
@@ -60,6 +65,8 @@ public class GUISystem extends EntitySystem implements Telegraph, Disposable {
 		squadManagmentContainer.add(commandCardContainer).padTop(30);
 		squadManagmentContainer.center().bottom();
 		stage.addActor(squadManagmentContainer);
+
+		metricsOverlay = new MetricsOverlay(engine, skin.getFont("default-font"));
 	}
 
 	private void initGUI () {
@@ -136,6 +143,10 @@ public class GUISystem extends EntitySystem implements Telegraph, Disposable {
 		commandCardContainer.updateFormationPattern(index, pattern);
 	}
 
+	public void toggleMetrics () {
+		metricsOverlay.setVisible(!metricsOverlay.isVisible());
+	}
+
 
 	@Override
 	public void update (float deltaTime) {
@@ -143,6 +154,9 @@ public class GUISystem extends EntitySystem implements Telegraph, Disposable {
 
 		stage.act();
 		stage.draw();
+
+		metricsOverlay.update(deltaTime);
+		metricsOverlay.draw(stage.getBatch(), stage.getCamera().combined);
 	}
 
 	public Stage getStage () {
@@ -151,12 +165,16 @@ public class GUISystem extends EntitySystem implements Telegraph, Disposable {
 
 	@Override
 	public void dispose () {
-		stage.dispose();
+		MessageManager.getInstance().removeListener(this, TelegramMessage.SQUAD_INPUT_SELECTED.ordinal());
+		MessageManager.getInstance().removeListener(this, TelegramMessage.GUI_INSUFFICIENT_RESOURCES.ordinal());
+		resourceAlertTask.cancel();
+		stage.clear();
+		if (metricsOverlay != null) metricsOverlay.dispose();
 	}
 
 	@Override
 	public boolean handleMessage (Telegram msg) {
-		TelegramMessage telegramMsg = TelegramMessage.values()[msg.message];
+		TelegramMessage telegramMsg = TelegramMessage.get(msg.message);
 		switch (telegramMsg) {
 		
 		case SQUAD_INPUT_SELECTED:
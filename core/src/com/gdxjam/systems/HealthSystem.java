@@ -2,56 +2,154 @@ package com.gdxjam.systems;
 
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.core.PooledEngine;
-import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
 import com.gdxjam.Assets;
 import com.gdxjam.AudioManager;
 import com.gdxjam.GameManager;
+import com.gdxjam.components.FactionComponent.Faction;
 import com.gdxjam.components.HealthComponent;
 import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.DamageListener;
 import com.gdxjam.ecs.EntityCategory;
+import com.gdxjam.ecs.EntityManager;
+import com.gdxjam.ecs.Restartable;
 import com.gdxjam.screens.GameOverScreen;
 import com.gdxjam.systems.ParticleSystem.ParticleType;
-import com.gdxjam.utils.EntityFactory;
 
-public class HealthSystem extends IteratingSystem {
+/** Applies damage and handles deaths. Hits are queued with {@link #damage(Entity, int, Faction)} and applied on the next update,
+ * so only the entities that were hit are looked at. Each hit is reported to the {@link DamageListener}s, and the entities killed
+ * during the tick are destroyed together with a single sound. They are removed in one batch at the next sync point, where the
+ * {@link com.gdxjam.ecs.TargetEntityListener} clears every target pointing at them in a single pass. */
+public class HealthSystem extends EntitySystem implements Restartable {
 
-	private PooledEngine engine;
+	private static final int INITIAL_CAPACITY = 128;
 
-	public HealthSystem() {
-		super(Family.all(HealthComponent.class).get());
-	}
+	private final Faction[] factions = Faction.values();
+
+	// Queued hits, in the order they happened
+	private final Array<Entity> targets = new Array<Entity>(INITIAL_CAPACITY);
+	private int[] amounts = new int[INITIAL_CAPACITY];
+	/** Ordinal of the faction dealing the damage, -1 if unknown */
+	private int[] sources = new int[INITIAL_CAPACITY];
+
+	private final Array<Entity> killed = new Array<Entity>(false, 32);
+	private final Array<DamageListener> listeners = new Array<DamageListener>();
+
+	private EntityManager engine;
+	private boolean headless;
 
 	@Override
 	public void addedToEngine(Engine engine) {
 		super.addedToEngine(engine);
-		this.engine = (PooledEngine) engine;
+		this.engine = (EntityManager) engine;
+		this.headless = this.engine.isHeadless();
 	}
 
 	@Override
-	protected void processEntity(Entity entity, float deltaTime) {
-		HealthComponent health = Components.HEALTH.get(entity);
+	public void removedFromEngine (Engine engine) {
+		super.removedFromEngine(engine);
+		clear();
+	}
+
+	public void addDamageListener (DamageListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeDamageListener (DamageListener listener) {
+		listeners.removeValue(listener, true);
+	}
+
+	/** Queues a hit on the target, it is applied on the next update
+	 * @param source the faction that dealt the damage, null if unknown */
+	public void damage (Entity target, int amount, Faction source) {
+		int index = targets.size;
+		if (index == amounts.length) grow();
+		targets.add(target);
+		amounts[index] = amount;
+		sources[index] = source == null ? -1 : source.ordinal();
+	}
+
+	@Override
+	public void update (float deltaTime) {
+		for (int i = 0; i < targets.size; i++)
+			apply(targets.get(i), amounts[i], sources[i] < 0 ? null : factions[sources[i]]);
+		targets.clear();
+
+		if (killed.size > 0) {
+			handleDeaths();
+			killed.clear();
+		}
+	}
+
+	private void apply (Entity target, int amount, Faction source) {
+		HealthComponent health = Components.HEALTH.get(target);
+		if (health == null) return;
+
+		// Hits on an entity that already died this tick are dropped, it only dies once
+		if (health.value <= health.min) return;
+		health.value = MathUtils.clamp(health.value - amount, health.min, health.max);
+
+		for (int i = 0; i < listeners.size; i++)
+			listeners.get(i).damaged(target, amount, source);
 
 		if (health.value <= health.min) {
+			killed.add(target);
+			for (int i = 0; i < listeners.size; i++)
+				listeners.get(i).killed(target, source);
+		}
+	}
 
-			if((entity.flags & EntityCategory.MOTHERSHIP) > 0){
-				GameManager.setScreen(new GameOverScreen());
-			}
-			engine.removeEntity(entity);
-			AudioManager.playSound(Assets.sound.boom);
-			EntityFactory.createParticle(Components.STEERABLE.get(entity).getPosition(), ParticleType.EXPLOSION);
+	private void handleDeaths () {
+		// Without a display there are no screens, sounds or particles to show
+		if (headless) {
+			for (int i = 0; i < killed.size; i++)
+				engine.getCommands().destroy(killed.get(i));
 			return;
 		}
 
-		health.value = MathUtils.clamp(health.value, health.min, health.max);
+		ParticleSystem particleSystem = engine.getSystem(ParticleSystem.class);
+		boolean gameOver = false;
+		for (int i = 0; i < killed.size; i++) {
+			Entity entity = killed.get(i);
+			if ((entity.flags & EntityCategory.MOTHERSHIP) > 0) gameOver = true;
+
+			Vector2 position = Components.STEERABLE.get(entity).getPosition();
+			if (particleSystem != null) particleSystem.spawn(ParticleType.EXPLOSION, position.x, position.y);
+			engine.getCommands().destroy(entity);
+		}
+
+		// One explosion sound for every death of the tick
+		AudioManager.playSound(Assets.sound.boom);
+		if (gameOver) GameManager.setScreen(new GameOverScreen());
+	}
+
+	/** Drops the hits that were not applied yet */
+	public void clear () {
+		targets.clear();
+		killed.clear();
+	}
+
+	@Override
+	public void restart () {
+		clear();
+	}
 
+	private void grow () {
+		int capacity = amounts.length << 1;
+		int[] newAmounts = new int[capacity];
+		int[] newSources = new int[capacity];
+		System.arraycopy(amounts, 0, newAmounts, 0, targets.size);
+		System.arraycopy(sources, 0, newSources, 0, targets.size);
+		amounts = newAmounts;
+		sources = newSources;
 	}
 	
 	@Override
 	public boolean checkProcessing () {
-		return !GameManager.isPaused();
+		return super.checkProcessing() && !GameManager.isPaused();
 	}
 
 }
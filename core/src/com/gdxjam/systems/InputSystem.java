@@ -31,6 +31,7 @@ public class InputSystem extends EntitySystem implements InputProcessor {
 	private IntMap<Integer> keybindIndices = new IntMap<Integer>();
 
 	private CameraSystem cameraSystem;
+	private NavigationSystem navigationSystem;
 
 	private InputMultiplexer multiplexer;
 	private GUISystem guiSystem;
@@ -44,6 +45,7 @@ public class InputSystem extends EntitySystem implements InputProcessor {
 	public void addedToEngine (Engine engine) {
 		super.addedToEngine(engine);
 		cameraSystem = engine.getSystem(CameraSystem.class);
+		navigationSystem = engine.getSystem(NavigationSystem.class);
 		initalizeInput();
 	}
 
@@ -150,7 +152,7 @@ public class InputSystem extends EntitySystem implements InputProcessor {
 	public void setTargetForSelected (Vector2 target) {
 		for (int i : selectedIndices) {
 			Entity squad = squadIndices.get(i);
-			Components.SQUAD.get(squad).setTarget(target);
+			navigationSystem.moveTo(squad, target);
 		}
 	}
 
@@ -189,6 +191,10 @@ public class InputSystem extends EntitySystem implements InputProcessor {
 			// TODO INPUT: toggle the tatical state of the squad
 			return true;
 
+		case Keybinds.METRICS_TOGGLE:
+			guiSystem.toggleMetrics();
+			return true;
+
 		case Keys.SPACE:
 			// TODO INPUT: move camera to squad
 			return true;
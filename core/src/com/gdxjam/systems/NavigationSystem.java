@@ -0,0 +1,226 @@
+package com.gdxjam.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.gdxjam.GameManager;
+import com.gdxjam.ai.navigation.FlowField;
+import com.gdxjam.ai.navigation.HierarchicalPathFinder;
+import com.gdxjam.ai.navigation.OccupancyGrid;
+import com.gdxjam.ai.navigation.PathRequest;
+import com.gdxjam.ai.state.SquadCombatState;
+import com.gdxjam.components.FSMComponent;
+import com.gdxjam.components.ResourceComponent;
+import com.gdxjam.components.SquadComponent;
+import com.gdxjam.components.SteerableComponent;
+import com.gdxjam.ecs.BatchListener;
+import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityManager;
+
+/** Steers squads around the asteroid field. Enemy waves follow shared {@link FlowField}s, one computed per destination cell over
+ * an {@link OccupancyGrid} of the asteroids and sampled by any number of squads. Depleted asteroids open their cells in every
+ * cached field incrementally.
+ *
+ * Move orders are searched by a {@link HierarchicalPathFinder} within a per frame budget and followed by advancing the target
+ * location of the squad through the waypoints. */
+public class NavigationSystem extends IteratingSystem implements EntityListener, BatchListener {
+
+	public static final float CELL_SIZE = 2.0f;
+	public static final float CLEARANCE = 1.0f;
+
+	/** Distance ahead of the squad that its target location is placed along the field */
+	private static final float LOOKAHEAD = 4.0f;
+
+	/** Distance at which a squad moves on to the next waypoint of its path */
+	private static final float WAYPOINT_RADIUS = 2.0f;
+
+	/** Maximum number of cells expanded by path searches each frame */
+	private static final int PATH_BUDGET = 2000;
+
+	private Family obstacleFamily = Family.all(ResourceComponent.class, SteerableComponent.class).get();
+
+	private OccupancyGrid grid = new OccupancyGrid(SpatialIndexSystem.DEFAULT_WORLD_SIZE, SpatialIndexSystem.DEFAULT_WORLD_SIZE,
+		CELL_SIZE, CLEARANCE);
+	private IntMap<FlowField> flowFields = new IntMap<FlowField>();
+	private HierarchicalPathFinder pathFinder = new HierarchicalPathFinder(grid);
+
+	// Bodies may already be destroyed when an asteroid is removed so the blocked area is remembered
+	private ObjectMap<Entity, Circle> obstacles = new ObjectMap<Entity, Circle>();
+	private IntArray changedCells = new IntArray();
+
+	private EntityManager engine;
+	private Vector2 direction = new Vector2();
+	private boolean fieldsDirty = false;
+
+	public NavigationSystem () {
+		super(Family.all(SquadComponent.class).get());
+	}
+
+	@Override
+	public void addedToEngine (Engine engine) {
+		super.addedToEngine(engine);
+		this.engine = (EntityManager)engine;
+		this.engine.addEntityListener(obstacleFamily, this);
+		this.engine.addBatchListener(this);
+	}
+
+	@Override
+	public void removedFromEngine (Engine engine) {
+		super.removedFromEngine(engine);
+		engine.removeEntityListener(this);
+		this.engine.removeBatchListener(this);
+		obstacles.clear();
+		flowFields.clear();
+		pathFinder.clear();
+	}
+
+	/** Resizes the occupancy grid and rebuilds it from the asteroids already in the engine. Cached fields are discarded. */
+	public void setWorldBounds (float worldWidth, float worldHeight) {
+		grid.resize(worldWidth, worldHeight, CELL_SIZE);
+		flowFields.clear();
+		obstacles.clear();
+		pathFinder.clear();
+
+		ImmutableArray<Entity> entities = engine.getEntitiesFor(obstacleFamily);
+		for (int i = 0; i < entities.size(); i++)
+			entityAdded(entities.get(i));
+	}
+
+	/** @return the field leading to the destination, shared by every caller heading to the same cell */
+	public FlowField getFlowField (Vector2 destination) {
+		int cell = grid.getClampedCell(destination.x, destination.y);
+		FlowField flowField = flowFields.get(cell);
+		if (flowField == null) {
+			flowField = new FlowField(grid, destination.x, destination.y);
+			flowFields.put(cell, flowField);
+		}
+		return flowField;
+	}
+
+	@Override
+	public void entityAdded (Entity entity) {
+		SteerableComponent steerable = Components.STEERABLE.get(entity);
+		Vector2 position = steerable.getPosition();
+		Circle circle = new Circle(position.x, position.y, steerable.getBoundingRadius());
+		obstacles.put(entity, circle);
+
+		changedCells.clear();
+		grid.block(circle.x, circle.y, circle.radius, changedCells);
+		pathFinder.invalidate(changedCells);
+
+		// Asteroids are only added while the world is generated, before any field exists
+		if (engine.isBatching())
+			fieldsDirty = true;
+		else
+			computeFlowFields();
+	}
+
+	@Override
+	public void batchEnded () {
+		if (fieldsDirty) computeFlowFields();
+	}
+
+	private void computeFlowFields () {
+		for (FlowField flowField : flowFields.values())
+			flowField.compute();
+		fieldsDirty = false;
+	}
+
+	@Override
+	public void entityRemoved (Entity entity) {
+		Circle circle = obstacles.remove(entity);
+		// Restarting a match clears every asteroid, the grid and the fields are reset by setWorldBounds right after
+		if (circle == null || engine.isClearing()) return;
+
+		changedCells.clear();
+		grid.unblock(circle.x, circle.y, circle.radius, changedCells);
+		if (changedCells.size == 0) return;
+
+		pathFinder.invalidate(changedCells);
+
+		for (FlowField flowField : flowFields.values()) {
+			for (int i = 0; i < changedCells.size; i++)
+				flowField.open(changedCells.get(i));
+		}
+	}
+
+	/** Orders the squad to move to the target along a path around the asteroids. The squad keeps its current target until the path
+	 * has been found. */
+	public void moveTo (Entity squad, Vector2 target) {
+		SquadComponent squadComp = Components.SQUAD.get(squad);
+		Vector2 position = Components.STEERABLE.get(squad).getPosition();
+		squadComp.flowField = null;
+		pathFinder.request(squadComp.path, position.x, position.y, target.x, target.y);
+	}
+
+	@Override
+	public void update (float deltaTime) {
+		pathFinder.update(PATH_BUDGET);
+		super.update(deltaTime);
+	}
+
+	@Override
+	protected void processEntity (Entity entity, float deltaTime) {
+		SquadComponent squadComp = Components.SQUAD.get(entity);
+		Vector2 position = Components.STEERABLE.get(entity).getPosition();
+
+		PathRequest path = squadComp.path;
+		if (path.status == PathRequest.FOUND) {
+			followPath(squadComp, path, position);
+		} else if (path.status == PathRequest.FAILED) {
+			// No path around the obstacles, head straight for the target
+			squadComp.targetLocation.getPosition().set(path.endX, path.endY);
+			path.reset();
+		} else if (squadComp.flowField != null && isAdvancing(entity)) {
+			followFlowField(squadComp, squadComp.flowField, position);
+		}
+	}
+
+	/** @return true while the squad is heading for its objective, engaged squads keep the target set by their combat state */
+	private boolean isAdvancing (Entity squad) {
+		FSMComponent fsm = Components.FSM.get(squad);
+		return fsm == null || fsm.getStateMachine().isInState(SquadCombatState.IDLE);
+	}
+
+	private void followPath (SquadComponent squadComp, PathRequest path, Vector2 position) {
+		int last = path.getWaypointCount() - 1;
+		while (path.next < last
+			&& position.dst2(path.getWaypointX(path.next), path.getWaypointY(path.next)) < WAYPOINT_RADIUS * WAYPOINT_RADIUS)
+			path.next++;
+
+		squadComp.targetLocation.getPosition().set(path.getWaypointX(path.next), path.getWaypointY(path.next));
+
+		// Arrive takes over once the final waypoint is the target
+		if (path.next == last) path.reset();
+	}
+
+	private void followFlowField (SquadComponent squadComp, FlowField flowField, Vector2 position) {
+		float destinationX = flowField.getDestinationX();
+		float destinationY = flowField.getDestinationY();
+
+		flowField.getDirection(position.x, position.y, direction);
+		if (direction.isZero() || position.dst2(destinationX, destinationY) < LOOKAHEAD * LOOKAHEAD) {
+			squadComp.targetLocation.getPosition().set(destinationX, destinationY);
+		} else {
+			squadComp.targetLocation.getPosition().set(position).add(direction.scl(LOOKAHEAD));
+		}
+	}
+
+	public OccupancyGrid getOccupancyGrid () {
+		return grid;
+	}
+
+	@Override
+	public boolean checkProcessing () {
+		return super.checkProcessing() && !GameManager.isPaused();
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.gdxjam.systems;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEmitter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.gdxjam.OrionPrefs;
+import com.gdxjam.systems.ParticleSystem.ParticleType;
+
+/** The parsed templates and pools of every {@link ParticleType}. Loading the effect files is slow, so the library is kept by the
+ * {@link com.gdxjam.GameContext} and shared by the particle systems of every match.
+ * <p>
+ * The pools are filled up front with the peak number of effects of each type seen in earlier games, kept in {@link OrionPrefs}. */
+public class ParticleLibrary implements Disposable {
+
+	private static final String ROOT_DIR = "particles/";
+	private static final int MAX_POOLED = 64;
+
+	private final ParticleType[] types = ParticleType.values();
+	private final Array<ParticleEffect> templates = new Array<ParticleEffect>();
+	private final Array<ParticleEffectPool> pools = new Array<ParticleEffectPool>();
+	private final float[] lifetimes = new float[types.length];
+	private final int[] maxParticles = new int[types.length];
+	/** The most effects of each type alive at once since the library was loaded */
+	private final int[] peaks = new int[types.length];
+
+	public ParticleLibrary () {
+		Array<PooledEffect> warm = new Array<PooledEffect>();
+		for (int i = 0; i < types.length; i++) {
+			ParticleEffect template = new ParticleEffect();
+			template.load(Gdx.files.internal(ROOT_DIR + types[i].file), Gdx.files.internal(ROOT_DIR));
+			template.scaleEffect(0.02f);
+			templates.add(template);
+
+			Array<ParticleEmitter> emitters = template.getEmitters();
+			for (int j = 0; j < emitters.size; j++) {
+				ParticleEmitter emitter = emitters.get(j);
+				float lifetime = emitter.isContinuous() ? Float.MAX_VALUE : emitter.getDelay().getLowMax()
+					+ emitter.getDuration().getLowMax() + emitter.getLife().getHighMax();
+				lifetimes[i] = Math.max(lifetimes[i], lifetime / 1000.0f);
+				maxParticles[i] += emitter.getMaxParticleCount();
+			}
+
+			int initial = Math.min(OrionPrefs.getInteger(types[i].poolSize), MAX_POOLED);
+			ParticleEffectPool pool = new ParticleEffectPool(template, initial, MAX_POOLED);
+			pools.add(pool);
+
+			// Create the effects the earlier games needed now rather than in the middle of a fight
+			for (int j = 0; j < initial; j++)
+				warm.add(pool.obtain());
+			pool.freeAll(warm);
+			warm.clear();
+		}
+	}
+
+	public ParticleEffect getTemplate (ParticleType type) {
+		return templates.get(type.ordinal());
+	}
+
+	public ParticleEffectPool getPool (ParticleType type) {
+		return pools.get(type.ordinal());
+	}
+
+	/** @return the seconds after which an effect of the type is surely complete */
+	public float getLifetime (int type) {
+		return lifetimes[type];
+	}
+
+	/** @return the number of particles an effect of the type can have alive at once */
+	public int getMaxParticles (ParticleType type) {
+		return maxParticles[type.ordinal()];
+	}
+
+	/** Records the number of effects of the type alive at once */
+	public void recordDemand (ParticleType type, int active) {
+		if (active > peaks[type.ordinal()]) peaks[type.ordinal()] = active;
+	}
+
+	/** Remembers the peak demand of each type for the pools of the next game */
+	public void savePoolSizes () {
+		for (int i = 0; i < types.length; i++) {
+			int peak = Math.min(peaks[i], MAX_POOLED);
+			if (peak > OrionPrefs.getInteger(types[i].poolSize)) OrionPrefs.putInteger(types[i].poolSize, peak);
+		}
+	}
+
+	@Override
+	public void dispose () {
+		savePoolSizes();
+		for (int i = 0; i < templates.size; i++)
+			templates.get(i).dispose();
+		templates.clear();
+		pools.clear();
+	}
+
+}
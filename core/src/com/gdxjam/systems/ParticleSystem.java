@@ -1,94 +1,243 @@
-
 package com.gdxjam.systems;
 
 import com.badlogic.ashley.core.Engine;
-import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.core.PooledEngine;
-import com.badlogic.ashley.systems.IteratingSystem;
-import com.badlogic.gdx.Gdx;
+import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.ParticleEffect;
-import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
 import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEmitter;
+import com.badlogic.gdx.graphics.g2d.ParticleEmitter.ScaledNumericValue;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
-import com.gdxjam.components.ParticleComponent;
-import com.gdxjam.ecs.Components;
-
-public class ParticleSystem extends IteratingSystem {
-
-	private static final String ROOT_DIR = "particles/";
+import com.badlogic.gdx.utils.Disposable;
+import com.gdxjam.GameContext;
+import com.gdxjam.OrionPrefs.IntValue;
+import com.gdxjam.ecs.Restartable;
+
+/** Spawns, updates and draws the particle effects. Effects are purely visual so they are not entities, systems start them with
+ * {@link #spawn(ParticleType, float, float)} and they are kept in parallel arrays until they complete. Effects are only simulated
+ * while they are in view, an effect off screen just ages and catches up with a single update once it is back in view, or is
+ * dropped when it has outlived its emitters.
+ * <p>
+ * New effects are refused while the particles alive exceed {@link #particleBudget}, and zoomed out they emit fewer particles. The
+ * effects come from the pools of the {@link ParticleLibrary} shared through the {@link GameContext}. */
+public class ParticleSystem extends EntitySystem implements Disposable, Restartable {
+
+	/** Maximum number of particles alive across all effects */
+	public static int particleBudget = 2000;
+
+	/** Pixels per world unit from which effects emit all of their particles */
+	private static final float FULL_DETAIL_PIXELS_PER_UNIT = 16.0f;
+	private static final float MIN_DETAIL = 0.25f;
+	/** Distance around the position of an effect its particles can reach, used for culling */
+	private static final float CULL_RADIUS = 2.0f;
+	private static final int INITIAL_CAPACITY = 64;
 
 	public enum ParticleType {
-		EXPLOSION("explosion.p"), HARVSET("harvest.p");
+		EXPLOSION("explosion.p", IntValue.PARTICLE_POOL_EXPLOSION), HARVSET("harvest.p", IntValue.PARTICLE_POOL_HARVEST);
 
 		public String file;
+		public IntValue poolSize;
 
-		private ParticleType (String file) {
+		private ParticleType (String file, IntValue poolSize) {
 			this.file = file;
+			this.poolSize = poolSize;
 		}
 	}
 
-	private Array<ParticleEffect> effectTemplates = new Array<ParticleEffect>();
-	private Array<ParticleEffectPool> effectPools = new Array<ParticleEffectPool>();
-
+	private final ParticleLibrary library;
+	/** Effects of each type alive now */
+	private final int[] active = new int[ParticleType.values().length];
+
+	// Effects alive, unordered so removing one moves the last into its place like the arrays beside it
+	private final Array<PooledEffect> effects = new Array<PooledEffect>(false, INITIAL_CAPACITY);
+	private int size = 0;
+	private int[] types = new int[INITIAL_CAPACITY];
+	private float[] x = new float[INITIAL_CAPACITY];
+	private float[] y = new float[INITIAL_CAPACITY];
+	/** Seconds since the effect started */
+	private float[] age = new float[INITIAL_CAPACITY];
+	/** Seconds spent off screen that have not been simulated yet */
+	private float[] skipped = new float[INITIAL_CAPACITY];
+	/** Particles alive after the last update of the effect */
+	private int[] particles = new int[INITIAL_CAPACITY];
+
+	private int particleCount = 0;
+	private float detail = 1.0f;
+
+	private CameraSystem cameraSystem;
 	private OrthographicCamera camera;
 	private SpriteBatch batch;
 
-	private PooledEngine engine;
-
-	@SuppressWarnings("unchecked")
 	public ParticleSystem () {
-		super(Family.all(ParticleComponent.class).get());
-		loadTemplates();
+		library = GameContext.getParticles();
 	}
 
-	public void loadTemplates () {
-		for (int i = 0; i < ParticleType.values().length; i++) {
-			ParticleEffect template = new ParticleEffect();
-			template.load(Gdx.files.internal(ROOT_DIR + ParticleType.values()[i].file), Gdx.files.internal(ROOT_DIR));
-			template.scaleEffect(0.02f);
-			effectTemplates.add(template);
+	/** @return true if an effect of the type may be started, false while the particle budget is spent */
+	public boolean canEmit (ParticleType type) {
+		return particleCount + library.getMaxParticles(type) * detail <= particleBudget;
+	}
 
-			ParticleEffectPool pool = new ParticleEffectPool(template, 4, 20);
-			effectPools.add(pool);
+	private PooledEffect createEffect (ParticleType type, float x, float y) {
+		int index = type.ordinal();
+		PooledEffect effect = library.getPool(type).obtain();
+		effect.setPosition(x, y);
+
+		// The emission of pooled effects is scaled from the template by the detail of the current zoom
+		Array<ParticleEmitter> emitters = effect.getEmitters();
+		Array<ParticleEmitter> templateEmitters = library.getTemplate(type).getEmitters();
+		for (int i = 0; i < emitters.size; i++) {
+			ScaledNumericValue emission = emitters.get(i).getEmission();
+			ScaledNumericValue base = templateEmitters.get(i).getEmission();
+			emission.setHigh(base.getHighMin() * detail, base.getHighMax() * detail);
+			emission.setLow(base.getLowMin() * detail, base.getLowMax() * detail);
 		}
-	}
 
-	public PooledEffect createEffect (Vector2 position, ParticleType type) {
-		PooledEffect effect = effectPools.get(type.ordinal()).obtain();
-		effect.setPosition(position.x, position.y);
+		// Counted against the budget until the effect is first updated
+		particleCount += library.getMaxParticles(type) * detail;
+		library.recordDemand(type, ++active[index]);
 		return effect;
 	}
 
+	/** Starts an effect of the type at the position, unless the particle budget is spent */
+	public void spawn (ParticleType type, float x, float y) {
+		if (!canEmit(type)) return;
+		if (size == this.x.length) grow();
+
+		int index = size++;
+		effects.add(createEffect(type, x, y));
+		this.types[index] = type.ordinal();
+		this.x[index] = x;
+		this.y[index] = y;
+		age[index] = 0;
+		skipped[index] = 0;
+		particles[index] = 0;
+	}
+
+	/** @return the number of effects alive */
+	public int getEffectCount () {
+		return size;
+	}
+
+	/** @return the number of particles alive after the last update */
+	public int getParticleCount () {
+		return particleCount;
+	}
+
 	@Override
 	public void addedToEngine (Engine engine) {
 		super.addedToEngine(engine);
-		this.engine = (PooledEngine)engine;
-		batch = new SpriteBatch();
-		camera = engine.getSystem(CameraSystem.class).getCamera();
+		batch = GameContext.getBatch();
+		cameraSystem = engine.getSystem(CameraSystem.class);
+		camera = cameraSystem.getCamera();
 	}
 
 	@Override
-	protected void processEntity (Entity entity, float deltaTime) {
-		ParticleComponent particle = Components.PARTICLE.get(entity);
-		particle.effect.update(deltaTime);
-		particle.effect.draw(batch);
-
-		if (particle.effect.isComplete()) {
-			particle.effect.free();
-			engine.removeEntity(entity);
-		}
+	public void removedFromEngine (Engine engine) {
+		super.removedFromEngine(engine);
+		clear();
 	}
 
 	@Override
 	public void update (float deltaTime) {
+		detail = MathUtils.clamp(cameraSystem.getPixelsPerUnit() / FULL_DETAIL_PIXELS_PER_UNIT, MIN_DETAIL, 1.0f);
+		int count = 0;
+
 		batch.setProjectionMatrix(camera.combined);
 		batch.begin();
-		super.update(deltaTime);
+		for (int i = 0; i < size;) {
+			if (update(i, deltaTime)) {
+				remove(i);
+				continue;
+			}
+			count += particles[i];
+			i++;
+		}
 		batch.end();
+
+		particleCount = count;
+	}
+
+	/** @return true once the effect is complete */
+	private boolean update (int index, float deltaTime) {
+		age[index] += deltaTime;
+		int type = types[index];
+
+		if (!camera.frustum.boundsInFrustum(x[index], y[index], 0.0f, CULL_RADIUS, CULL_RADIUS, 0.0f)) {
+			// Off screen the effect only ages, the time is simulated in one step if it comes back in view
+			skipped[index] += deltaTime;
+			return age[index] >= library.getLifetime(type);
+		}
+
+		PooledEffect effect = effects.get(index);
+		effect.update(skipped[index] + deltaTime);
+		skipped[index] = 0;
+		effect.draw(batch);
+
+		int count = 0;
+		Array<ParticleEmitter> emitters = effect.getEmitters();
+		for (int i = 0; i < emitters.size; i++)
+			count += emitters.get(i).getActiveCount();
+		particles[index] = count;
+		return effect.isComplete();
+	}
+
+	/** Frees the effect and moves the last one into its place */
+	private void remove (int index) {
+		int last = --size;
+		active[types[index]]--;
+		effects.removeIndex(index).free();
+		types[index] = types[last];
+		x[index] = x[last];
+		y[index] = y[last];
+		age[index] = age[last];
+		skipped[index] = skipped[last];
+		particles[index] = particles[last];
+	}
+
+	/** Returns every effect alive to its pool */
+	public void clear () {
+		for (int i = 0; i < effects.size; i++)
+			effects.get(i).free();
+		effects.clear();
+		for (int i = 0; i < active.length; i++)
+			active[i] = 0;
+		size = 0;
+		particleCount = 0;
+	}
+
+	@Override
+	public void restart () {
+		clear();
+	}
+
+	private void grow () {
+		int capacity = x.length << 1;
+		types = copyOf(types, capacity);
+		x = copyOf(x, capacity);
+		y = copyOf(y, capacity);
+		age = copyOf(age, capacity);
+		skipped = copyOf(skipped, capacity);
+		particles = copyOf(particles, capacity);
+	}
+
+	private float[] copyOf (float[] array, int capacity) {
+		float[] newArray = new float[capacity];
+		System.arraycopy(array, 0, newArray, 0, size);
+		return newArray;
+	}
+
+	private int[] copyOf (int[] array, int capacity) {
+		int[] newArray = new int[capacity];
+		System.arraycopy(array, 0, newArray, 0, size);
+		return newArray;
+	}
+
+	@Override
+	public void dispose () {
+		// The batch and the library belong to the context, only the effects of this match are let go
+		clear();
+		library.savePoolSizes();
 	}
 
 }
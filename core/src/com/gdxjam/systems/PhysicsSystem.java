@@ -3,14 +3,16 @@ package com.gdxjam.systems;
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Disposable;
 import com.gdxjam.GameContactListener;
+import com.gdxjam.GameContext;
 import com.gdxjam.GameManager;
+import com.gdxjam.components.PhysicsComponent;
+import com.gdxjam.ecs.TransformMirror;
 
 public class PhysicsSystem extends EntitySystem implements Disposable {
 
@@ -20,40 +22,49 @@ public class PhysicsSystem extends EntitySystem implements Disposable {
 	public static boolean debug = true;
 
 	private World world;
+	private GameContactListener contactListener = new GameContactListener();
+	private TransformMirror transforms = new TransformMirror();
 	private Box2DDebugRenderer renderer;
 	private OrthographicCamera camera;
 
 	public PhysicsSystem() {
-		world = new World(new Vector2(0, 0), true);
-		world.setContactListener(new GameContactListener());
+		world = GameContext.getWorld();
+		world.setContactListener(contactListener);
 	}
 
 	@Override
 	public void addedToEngine(Engine engine) {
 		super.addedToEngine(engine);
 		this.camera = engine.getSystem(CameraSystem.class).getCamera();
-		renderer = new Box2DDebugRenderer();
-
 	}
 
 	@Override
 	public void update(float deltaTime) {
 		super.update(deltaTime);
+		// Contacts are only recorded during the step and resolved together once the world is consistent again
+		contactListener.beginStep();
 		world.step(TIME_STEP, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+		contactListener.endStep();
+		transforms.update();
 	}
 
 	public Body createBody(BodyDef def) {
 		return world.createBody(def);
 	}
 
-	public void destroyBody(Body body) {
-		world.destroyBody(body);
+	public void destroyBody(PhysicsComponent physics) {
+		transforms.unregister(physics.getSlot());
+		world.destroyBody(physics.getBody());
 	}
 
 	public World getWorld() {
 		return world;
 	}
 
+	public TransformMirror getTransforms() {
+		return transforms;
+	}
+
 	public void drawDebug() {
 		if (renderer == null) {
 			renderer = new Box2DDebugRenderer();
@@ -63,12 +74,13 @@ public class PhysicsSystem extends EntitySystem implements Disposable {
 
 	@Override
 	public void dispose() {
-		world.dispose();
-		renderer.dispose();
+		// The world is kept by the context for the next match, it is only emptied
+		GameContext.clearWorld();
+		if (renderer != null) renderer.dispose();
 	}
 	
 	@Override
 	public boolean checkProcessing () {
-		return !GameManager.isPaused();
+		return super.checkProcessing() && !GameManager.isPaused();
 	}
 }
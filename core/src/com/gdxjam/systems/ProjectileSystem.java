@@ -0,0 +1,218 @@
+package com.gdxjam.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.gdxjam.GameManager;
+import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.ecs.Archetype;
+import com.gdxjam.ecs.Archetypes;
+import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityCategory;
+import com.gdxjam.ecs.Restartable;
+import com.gdxjam.ecs.SpatialGrid;
+import com.gdxjam.utils.Constants;
+import com.gdxjam.utils.EntityUtils;
+
+/** Simulates projectiles without entities or Box2D bodies. Shots are stored in parallel primitive arrays and advanced every tick,
+ * the segment a shot travels is swept against the circles of the {@link SpatialIndexSystem} so fast shots can not tunnel through
+ * small units. A shot hits the first unit, resource or mothership along its path, ignoring its own faction unless friendly fire
+ * is enabled, and expires once its time to live runs out.
+ * <p>
+ * Shots are drawn in a single pass by the {@link EntityRenderSystem} using the regions of the projectile archetype. */
+public class ProjectileSystem extends EntitySystem implements Restartable {
+
+	/** When false projectiles are created as Box2D bodies by the {@link com.gdxjam.utils.EntityFactory} instead */
+	public static boolean enabled = true;
+
+	public static final int HIT_MASK = EntityCategory.UNIT | EntityCategory.RESOURCE | EntityCategory.MOTHERSHIP;
+	private static final int INITIAL_CAPACITY = 256;
+
+	private int size = 0;
+	private float[] x = new float[INITIAL_CAPACITY];
+	private float[] y = new float[INITIAL_CAPACITY];
+	private float[] velocityX = new float[INITIAL_CAPACITY];
+	private float[] velocityY = new float[INITIAL_CAPACITY];
+	private float[] radius = new float[INITIAL_CAPACITY];
+	private float[] ttl = new float[INITIAL_CAPACITY];
+	private int[] damage = new int[INITIAL_CAPACITY];
+	private int[] faction = new int[INITIAL_CAPACITY];
+
+	private SpatialIndexSystem spatialIndex;
+	private Archetype archetype;
+	private final Faction[] factions = Faction.values();
+	private final TextureRegion[] regions = new TextureRegion[factions.length];
+
+	// Closest hit of the sweep in progress
+	private Entity hitEntity;
+	private float hitTime;
+
+	@Override
+	public void addedToEngine (Engine engine) {
+		super.addedToEngine(engine);
+		spatialIndex = engine.getSystem(SpatialIndexSystem.class);
+		archetype = Archetypes.get("projectile");
+	}
+
+	@Override
+	public void removedFromEngine (Engine engine) {
+		super.removedFromEngine(engine);
+		clear();
+	}
+
+	/** Fires a shot from the position, the vectors are copied */
+	public void fire (Vector2 position, Vector2 velocity, float radius, Faction faction, int damage) {
+		if (size == x.length) grow();
+
+		int index = size++;
+		x[index] = position.x;
+		y[index] = position.y;
+		velocityX[index] = velocity.x;
+		velocityY[index] = velocity.y;
+		this.radius[index] = radius;
+		ttl[index] = archetype.decay;
+		this.damage[index] = damage;
+		this.faction[index] = faction.ordinal();
+	}
+
+	@Override
+	public void update (float deltaTime) {
+		for (int i = 0; i < size;) {
+			ttl[i] -= deltaTime;
+			if (ttl[i] <= 0 || sweep(i, deltaTime)) {
+				remove(i);
+				continue;
+			}
+			x[i] += velocityX[i] * deltaTime;
+			y[i] += velocityY[i] * deltaTime;
+			i++;
+		}
+	}
+
+	/** @return true if the shot hit something during the tick */
+	private boolean sweep (int shot, float deltaTime) {
+		int factionMask = Constants.friendlyFire ? ~0 : ~(1 << faction[shot]);
+
+		hitEntity = null;
+		hitTime = Float.MAX_VALUE;
+		sweep(spatialIndex.getDynamicGrid(), shot, deltaTime, factionMask);
+		sweep(spatialIndex.getStaticGrid(), shot, deltaTime, factionMask);
+		if (hitEntity == null) return false;
+
+		if (Components.HEALTH.has(hitEntity)) EntityUtils.damage(hitEntity, damage[shot], factions[faction[shot]]);
+		hitEntity = null;
+		return true;
+	}
+
+	private void sweep (SpatialGrid grid, int shot, float deltaTime, int factionMask) {
+		if (grid.getSize() == 0) return;
+
+		float startX = x[shot];
+		float startY = y[shot];
+		float deltaX = velocityX[shot] * deltaTime;
+		float deltaY = velocityY[shot] * deltaTime;
+		float length2 = deltaX * deltaX + deltaY * deltaY;
+
+		float extent = radius[shot] + grid.getMaxRadius(HIT_MASK);
+		int minX = grid.getCellX(Math.min(startX, startX + deltaX) - extent);
+		int maxX = grid.getCellX(Math.max(startX, startX + deltaX) + extent);
+		int minY = grid.getCellY(Math.min(startY, startY + deltaY) - extent);
+		int maxY = grid.getCellY(Math.max(startY, startY + deltaY) + extent);
+
+		for (int cellY = minY; cellY <= maxY; cellY++) {
+			for (int cellX = minX; cellX <= maxX; cellX++) {
+				for (int entry = grid.getHead(cellX, cellY); entry != SpatialGrid.NONE; entry = grid.getNext(entry)) {
+					if (!grid.matches(entry, HIT_MASK, factionMask)) continue;
+
+					// Closest point of the travelled segment to the center of the entry
+					float toX = grid.getX(entry) - startX;
+					float toY = grid.getY(entry) - startY;
+					float time = length2 > 0 ? MathUtils.clamp((toX * deltaX + toY * deltaY) / length2, 0, 1) : 0;
+					if (time >= hitTime) continue;
+
+					float offsetX = deltaX * time - toX;
+					float offsetY = deltaY * time - toY;
+					float range = radius[shot] + grid.getRadius(entry);
+					if (offsetX * offsetX + offsetY * offsetY <= range * range) {
+						hitTime = time;
+						hitEntity = grid.getEntity(entry);
+					}
+				}
+			}
+		}
+	}
+
+	/** Removes the shot by moving the last one into its place */
+	private void remove (int index) {
+		int last = --size;
+		x[index] = x[last];
+		y[index] = y[last];
+		velocityX[index] = velocityX[last];
+		velocityY[index] = velocityY[last];
+		radius[index] = radius[last];
+		ttl[index] = ttl[last];
+		damage[index] = damage[last];
+		faction[index] = faction[last];
+	}
+
+	/** Drops every shot in flight */
+	public void clear () {
+		size = 0;
+	}
+
+	/** The arrays keep their capacity for the shots of the next match */
+	@Override
+	public void restart () {
+		clear();
+	}
+
+	/** Draws every shot, the batch must have been started with the world camera */
+	public void draw (Batch batch) {
+		for (int i = 0; i < size; i++) {
+			if (regions[faction[i]] == null) regions[faction[i]] = archetype.getRegion(factions[faction[i]]);
+
+			float r = radius[i];
+			float rotation = MathUtils.atan2(velocityY[i], velocityX[i]) * MathUtils.radiansToDegrees;
+			batch.draw(regions[faction[i]], x[i] - r, y[i] - r, r, r, r * 2, r * 2, 1, 1, rotation);
+		}
+	}
+
+	/** @return the number of shots in flight */
+	public int getSize () {
+		return size;
+	}
+
+	private void grow () {
+		int capacity = x.length << 1;
+		x = copyOf(x, capacity);
+		y = copyOf(y, capacity);
+		velocityX = copyOf(velocityX, capacity);
+		velocityY = copyOf(velocityY, capacity);
+		radius = copyOf(radius, capacity);
+		ttl = copyOf(ttl, capacity);
+		damage = copyOf(damage, capacity);
+		faction = copyOf(faction, capacity);
+	}
+
+	private float[] copyOf (float[] array, int capacity) {
+		float[] newArray = new float[capacity];
+		System.arraycopy(array, 0, newArray, 0, size);
+		return newArray;
+	}
+
+	private int[] copyOf (int[] array, int capacity) {
+		int[] newArray = new int[capacity];
+		System.arraycopy(array, 0, newArray, 0, size);
+		return newArray;
+	}
+
+	@Override
+	public boolean checkProcessing () {
+		return super.checkProcessing() && !GameManager.isPaused();
+	}
+
+}
@@ -2,64 +2,95 @@ package com.gdxjam.systems;
 
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.core.PooledEngine;
-import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.gdxjam.GameManager;
+import com.gdxjam.ai.state.TelegramMessage;
 import com.gdxjam.components.DecayComponent;
 import com.gdxjam.components.ResourceComponent;
 import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityCommandBuffer;
+import com.gdxjam.ecs.EntityManager;
+import com.gdxjam.ecs.Restartable;
 import com.gdxjam.systems.ParticleSystem.ParticleType;
-import com.gdxjam.utils.EntityFactory;
 
-public class ResourceSystem extends IteratingSystem{
+/** Credits the resources of depleted asteroids. Asteroids are only looked at in the tick they were harvested through
+ * {@link #harvest(Entity, float)}, a depleted one starts decaying and broadcasts {@link TelegramMessage#RESOURCE_DEPLETED} to the
+ * squads so their harvesters move on right away. */
+public class ResourceSystem extends EntitySystem implements Restartable{
 	
 	public int population = 0;
 	public int resources = 500;
 	private GUISystem guiSystem;
-	private PooledEngine engine;
+	private EntityManager engine;
+	
+	//Resources harvested since the last update
+	private ObjectSet<Entity> harvested = new ObjectSet<Entity>();
 	
 	public ResourceSystem(GUISystem guiSystem){
-		super(Family.all(ResourceComponent.class).get());
 		this.guiSystem = guiSystem;
 	}
 	
 	@Override
 	public void addedToEngine (Engine engine) {
 		super.addedToEngine(engine);
-		this.engine = (PooledEngine) engine;
+		this.engine = (EntityManager) engine;
 		//guiSystem = engine.getSystem(guiSystem.class);
-		guiSystem.updateResource(resources);
+		if(guiSystem != null) guiSystem.updateResource(resources);
+	}
+	
+	@Override
+	public void restart () {
+		population = 0;
+		resources = 500;
+		harvested.clear();
+		if(guiSystem != null) guiSystem.updateResource(resources);
+	}
+	
+	/** Takes the amount from the resource, it is checked for depletion on the next update */
+	public void harvest(Entity resource, float amount){
+		ResourceComponent resourceComp = Components.RESOURCE.get(resource);
+		if(resourceComp == null) return;
+		resourceComp.value -= amount;
+		harvested.add(resource);
 	}
 	
 	public void modifyResource(int amount){
 		resources += amount;
-		guiSystem.updateResource(resources);
+		if(guiSystem != null) guiSystem.updateResource(resources);
 	}
 	
 	@Override
 	public void update (float deltaTime) {
 		super.update(deltaTime);
-
+		
+		for(Entity entity : harvested){
+			ResourceComponent resourceComp = Components.RESOURCE.get(entity);
+			if(resourceComp != null && resourceComp.value <= resourceComp.capactiy.min()){
+				deplete(entity, resourceComp);
+			}
+		}
+		harvested.clear();
 	}
 
-	@Override
-	protected void processEntity (Entity entity, float deltaTime) {
-		ResourceComponent resourceComp = Components.RESOURCE.get(entity);
+	private void deplete (Entity entity, ResourceComponent resourceComp) {
+		modifyResource((int)resourceComp.capactiy.max());
 		
-		if(resourceComp.value <= resourceComp.capactiy.min()){
-			modifyResource((int)resourceComp.capactiy.max());
-			
-			EntityFactory.createParticle(Components.STEERABLE.get(entity).getPosition(), ParticleType.HARVSET);
-			entity.remove(ResourceComponent.class);
-			entity.add(engine.createComponent(DecayComponent.class).init(0.15f));
-		}
+		Vector2 position = Components.STEERABLE.get(entity).getPosition();
+		ParticleSystem particleSystem = engine.getSystem(ParticleSystem.class);
+		if (particleSystem != null) particleSystem.spawn(ParticleType.HARVSET, position.x, position.y);
+		EntityCommandBuffer commands = engine.getCommands();
+		commands.remove(entity, ResourceComponent.class);
+		commands.add(entity, engine.createComponent(DecayComponent.class).init(0.15f));
 		
+		MessageManager.getInstance().dispatchMessage(TelegramMessage.RESOURCE_DEPLETED.ordinal(), entity);
 	}
 	
 	@Override
 	public boolean checkProcessing () {
-		return !GameManager.isPaused();
+		return super.checkProcessing() && !GameManager.isPaused();
 	}
 
 
@@ -0,0 +1,104 @@
+package com.gdxjam.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.utils.Array;
+import com.gdxjam.GameManager;
+import com.gdxjam.components.FactionComponent;
+import com.gdxjam.components.SteerableComponent;
+import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.SpatialGrid;
+
+/** Keeps a uniform grid of every steerable entity for neighbourhood queries. Static bodies such as asteroids are kept in their own
+ * grid that is only rebuilt when one is added or removed. Dynamic bodies are reinserted from the transform mirror every tick. */
+public class SpatialIndexSystem extends EntitySystem implements EntityListener {
+
+	public static final float CELL_SIZE = 4.0f;
+	public static final float DEFAULT_WORLD_SIZE = 256.0f;
+
+	private Family family = Family.all(SteerableComponent.class, FactionComponent.class).get();
+
+	private SpatialGrid staticGrid = new SpatialGrid(DEFAULT_WORLD_SIZE, DEFAULT_WORLD_SIZE, CELL_SIZE);
+	private SpatialGrid dynamicGrid = new SpatialGrid(DEFAULT_WORLD_SIZE, DEFAULT_WORLD_SIZE, CELL_SIZE);
+
+	private Array<Entity> staticEntities = new Array<Entity>();
+	private Array<Entity> dynamicEntities = new Array<Entity>();
+	private boolean staticDirty = false;
+
+	@Override
+	public void addedToEngine (Engine engine) {
+		super.addedToEngine(engine);
+		engine.addEntityListener(family, this);
+	}
+
+	@Override
+	public void removedFromEngine (Engine engine) {
+		super.removedFromEngine(engine);
+		engine.removeEntityListener(this);
+	}
+
+	public void setWorldBounds (float worldWidth, float worldHeight) {
+		staticGrid.resize(worldWidth, worldHeight, CELL_SIZE);
+		dynamicGrid.resize(worldWidth, worldHeight, CELL_SIZE);
+		staticDirty = true;
+	}
+
+	@Override
+	public void entityAdded (Entity entity) {
+		if (Components.STEERABLE.get(entity).getBody().getType() == BodyType.StaticBody) {
+			staticEntities.add(entity);
+			staticDirty = true;
+		} else {
+			dynamicEntities.add(entity);
+		}
+	}
+
+	@Override
+	public void entityRemoved (Entity entity) {
+		if (staticEntities.removeValue(entity, true))
+			staticDirty = true;
+		else
+			dynamicEntities.removeValue(entity, true);
+	}
+
+	@Override
+	public void update (float deltaTime) {
+		if (staticDirty) {
+			rebuild(staticGrid, staticEntities);
+			staticDirty = false;
+		}
+		rebuild(dynamicGrid, dynamicEntities);
+	}
+
+	private void rebuild (SpatialGrid grid, Array<Entity> entities) {
+		grid.clear();
+		for (int i = 0; i < entities.size; i++) {
+			Entity entity = entities.get(i);
+			SteerableComponent steerable = Components.STEERABLE.get(entity);
+			Vector2 position = steerable.getPosition();
+			int faction = Components.FACTION.get(entity).getFaction().ordinal();
+			grid.insert(entity, steerable, position.x, position.y, steerable.getBoundingRadius(), entity.flags, faction);
+		}
+	}
+
+	/** @return the grid of entities with static bodies */
+	public SpatialGrid getStaticGrid () {
+		return staticGrid;
+	}
+
+	/** @return the grid of entities with dynamic bodies, rebuilt every tick */
+	public SpatialGrid getDynamicGrid () {
+		return dynamicGrid;
+	}
+
+	@Override
+	public boolean checkProcessing () {
+		return super.checkProcessing() && !GameManager.isPaused();
+	}
+
+}
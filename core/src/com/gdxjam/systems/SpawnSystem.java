@@ -0,0 +1,214 @@
+package com.gdxjam.systems;
+
+import java.util.Comparator;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gdxjam.GameManager;
+import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityManager;
+import com.gdxjam.ecs.Restartable;
+import com.gdxjam.utils.EntityFactory;
+
+/** Spreads the cost of spawning squads over several frames. Scheduled squads are built ahead of their due time, a few entities per
+ * frame, with inactive bodies and without being added to the engine. Once due they are activated under a per frame entity budget.
+ * A squad is always activated together with its members so that no unit ever exists without its squad.
+ * <p>
+ * Only the squads scheduled here are budgeted, that is the waves and the trickle of the {@link WaveSystem}. Squads created with
+ * {@link SquadSystem#createSquad(Vector2, Faction, int)}, by the world generator, the player or the developer tools, are built and
+ * added in the frame they are asked for. */
+public class SpawnSystem extends EntitySystem implements Restartable {
+
+	/** Seconds before an order is due that it starts being built */
+	public static final float PREBUILD_TIME = 5.0f;
+
+	/** Maximum number of entities built each frame */
+	public static final int BUILD_BUDGET = 4;
+
+	/** Maximum number of entities added to the engine each frame. At least one squad is activated every frame. */
+	public static final int ACTIVATION_BUDGET = 16;
+
+	private Array<SpawnOrder> orders = new Array<SpawnOrder>();
+	private Pool<SpawnOrder> orderPool = new Pool<SpawnOrder>() {
+		@Override
+		protected SpawnOrder newObject () {
+			return new SpawnOrder();
+		}
+	};
+
+	private final Comparator<SpawnOrder> dueTimeComparator = new Comparator<SpawnOrder>() {
+		@Override
+		public int compare (SpawnOrder o1, SpawnOrder o2) {
+			return Float.compare(o1.dueTime, o2.dueTime);
+		}
+	};
+
+	private EntityManager engine;
+	private SquadSystem squadSystem;
+	private PhysicsSystem physicsSystem;
+	private float time = 0;
+	private final Vector2 memberPosition = new Vector2();
+
+	@Override
+	public void addedToEngine (Engine engine) {
+		super.addedToEngine(engine);
+		this.engine = (EntityManager)engine;
+		squadSystem = engine.getSystem(SquadSystem.class);
+		physicsSystem = engine.getSystem(PhysicsSystem.class);
+	}
+
+	@Override
+	public void removedFromEngine (Engine engine) {
+		super.removedFromEngine(engine);
+		cancelAll();
+	}
+
+	/** Cancels the orders of the previous match */
+	@Override
+	public void restart () {
+		cancelAll();
+		time = 0;
+	}
+
+	private void cancelAll () {
+		for (int i = 0; i < orders.size; i++)
+			cancel(orders.get(i));
+		orders.clear();
+	}
+
+	/** Schedules a squad to be spawned
+	 * @param delay seconds until the squad is added to the engine
+	 * @param group identifies related orders so they can be shifted together with {@link #shift(int, float)} */
+	public void schedule (Vector2 position, Faction faction, int members, float delay, int group) {
+		SpawnOrder order = orderPool.obtain();
+		order.position.set(position);
+		order.faction = faction;
+		order.members = members;
+		order.dueTime = time + delay;
+		order.group = group;
+
+		int index = 0;
+		while (index < orders.size && orders.get(index).dueTime <= order.dueTime)
+			index++;
+		orders.insert(index, order);
+	}
+
+	/** Moves the due time of every pending order in the group */
+	public void shift (int group, float seconds) {
+		for (int i = 0; i < orders.size; i++) {
+			SpawnOrder order = orders.get(i);
+			if (order.group == group) order.dueTime += seconds;
+		}
+		orders.sort(dueTimeComparator);
+	}
+
+	@Override
+	public void update (float deltaTime) {
+		time += deltaTime;
+
+		int buildBudget = BUILD_BUDGET;
+		int activationBudget = ACTIVATION_BUDGET;
+		boolean activated = false;
+
+		for (int i = 0; i < orders.size;) {
+			SpawnOrder order = orders.get(i);
+			// Orders are sorted so none of the remaining ones need to be built yet
+			if (order.dueTime - time > PREBUILD_TIME) break;
+
+			buildBudget = build(order, buildBudget);
+
+			if (order.dueTime <= time && order.isBuilt()) {
+				int size = order.members + 1;
+				if (activated && size > activationBudget) break;
+
+				activate(order);
+				activationBudget -= size;
+				activated = true;
+
+				orders.removeIndex(i);
+				orderPool.free(order);
+				continue;
+			}
+			i++;
+		}
+	}
+
+	/** @return the remaining budget */
+	private int build (SpawnOrder order, int budget) {
+		if (budget > 0 && order.squad == null) {
+			order.squad = EntityFactory.buildSquad(order.position, order.faction);
+			Components.PHYSICS.get(order.squad).getBody().setActive(false);
+			budget--;
+		}
+
+		while (budget > 0 && order.units.size < order.members) {
+			Vector2 position = squadSystem.getMemberPosition(order.position, order.members, order.units.size, memberPosition);
+			Entity unit = EntityFactory.buildUnit(position, order.squad);
+			Components.PHYSICS.get(unit).getBody().setActive(false);
+			order.units.add(unit);
+			budget--;
+		}
+		return budget;
+	}
+
+	private void activate (SpawnOrder order) {
+		engine.beginBatch();
+		Components.PHYSICS.get(order.squad).getBody().setActive(true);
+		engine.addEntity(order.squad);
+		squadSystem.assignObjective(order.squad);
+
+		for (int i = 0; i < order.units.size; i++) {
+			Entity unit = order.units.get(i);
+			Components.PHYSICS.get(unit).getBody().setActive(true);
+			engine.addEntity(unit);
+		}
+		engine.endBatch();
+	}
+
+	/** Destroys the bodies of an order that was built but never added to the engine */
+	private void cancel (SpawnOrder order) {
+		for (int i = 0; i < order.units.size; i++)
+			physicsSystem.destroyBody(Components.PHYSICS.get(order.units.get(i)));
+		if (order.squad != null) physicsSystem.destroyBody(Components.PHYSICS.get(order.squad));
+		orderPool.free(order);
+	}
+
+	/** @return the number of squads waiting to be spawned */
+	public int getPendingCount () {
+		return orders.size;
+	}
+
+	@Override
+	public boolean checkProcessing () {
+		return super.checkProcessing() && !GameManager.isPaused();
+	}
+
+	private static class SpawnOrder implements Poolable {
+		public final Vector2 position = new Vector2();
+		public Faction faction;
+		public int members;
+		public float dueTime;
+		public int group;
+
+		public Entity squad;
+		public final Array<Entity> units = new Array<Entity>();
+
+		public boolean isBuilt () {
+			return squad != null && units.size == members;
+		}
+
+		@Override
+		public void reset () {
+			faction = null;
+			squad = null;
+			units.clear();
+		}
+	}
+
+}
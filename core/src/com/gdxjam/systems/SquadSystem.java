@@ -4,14 +4,15 @@ package com.gdxjam.systems;
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.core.PooledEngine;
 import com.badlogic.ashley.systems.IteratingSystem;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.Array;
 import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.components.PhysicsComponent;
 import com.gdxjam.components.SquadComponent;
 import com.gdxjam.components.UnitComponent;
 import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityManager;
 import com.gdxjam.utils.Constants;
 import com.gdxjam.utils.EntityFactory;
 
@@ -20,7 +21,14 @@ public class SquadSystem extends IteratingSystem {
 	private static final String TAG = "[" + SquadSystem.class.getSimpleName() + "]";
 	private InputSystem inputSystem;
 	
-	private PooledEngine engine;
+	private EntityManager engine;
+	private Array<Entity> spawnBatch = new Array<Entity>();
+	private final Vector2 memberPosition = new Vector2();
+	private NavigationSystem navigationSystem;
+
+	// Enemy squads navigate toward the mothership
+	private Vector2 mothershipPosition = new Vector2(SpatialIndexSystem.DEFAULT_WORLD_SIZE * 0.5f,
+		SpatialIndexSystem.DEFAULT_WORLD_SIZE * 0.5f);
 
 	public SquadSystem (InputSystem inputSystem) {
 		super(Family.all(SquadComponent.class).get());
@@ -31,15 +39,17 @@ public class SquadSystem extends IteratingSystem {
 	@Override
 	public void addedToEngine (Engine engine) {
 		super.addedToEngine(engine);
-		this.engine = (PooledEngine)engine;
+		this.engine = (EntityManager)engine;
+		this.navigationSystem = engine.getSystem(NavigationSystem.class);
 	}
 	
 	public void spawnMothership(Vector2 position){
+		mothershipPosition.set(position);
 		Entity mothership = EntityFactory.createMothership(position);
 		Entity squad = EntityFactory.createSquad(position, Constants.playerFaction);
 		
-		Body body = Components.PHYSICS.get(mothership).getBody();
-		mothership.add(engine.createComponent(UnitComponent.class).init(squad, body));
+		PhysicsComponent physics = Components.PHYSICS.get(mothership);
+		mothership.add(engine.createComponent(UnitComponent.class).init(squad, physics));
 		
 		
 		Components.SQUAD.get(squad).addMember(mothership);
@@ -47,33 +57,45 @@ public class SquadSystem extends IteratingSystem {
 
 	public void createPlayerSquad (Vector2 position, Faction faction, int members) {
 		Entity squad = createSquad(position, faction, members);
-		inputSystem.addSquad(squad);
+		if(inputSystem != null) inputSystem.addSquad(squad);
 	}
 
 	public void createPlayerSquad (int index, Vector2 position, Faction faction, int members) {
 		Entity squad = createSquad(position, faction, members);
-		inputSystem.addSquad(squad, index);
+		if(inputSystem != null) inputSystem.addSquad(squad, index);
 	}
 
+	/** Creates the squad and its members and adds them to the engine in a single batch, right away. Squads that can be known ahead
+	 * of time should be scheduled with the {@link SpawnSystem} instead, which spreads their cost over several frames. */
 	public Entity createSquad (Vector2 position, Faction faction, int members) {
-		Entity squad = EntityFactory.createSquad(position, faction);
-		int columns = (int)Math.sqrt(members);
-		int posX = (int)position.x;
-		int posY = (int)position.y;
+		Entity squad = EntityFactory.buildSquad(position, faction);
+		spawnBatch.add(squad);
 		for (int i = 0; i < members; i++) {
-			int x = i / columns;
-			int y = i % columns;
-			EntityFactory.createUnit(new Vector2(posX + x, posY + y), squad);
+			spawnBatch.add(EntityFactory.buildUnit(getMemberPosition(position, members, i, memberPosition), squad));
 		}
+		engine.addEntities(spawnBatch);
+		spawnBatch.clear();
 
-		if (faction != Constants.playerFaction) {
-			Components.SQUAD.get(squad).setTarget(new Vector2(128, 128)); // TODO make dynamic
-		}
-		
+		assignObjective(squad);
 		return squad;
 	}
 
+	/** @return the spawn position of a member, members are laid out in a square grid starting at the squad position */
+	public Vector2 getMemberPosition (Vector2 position, int members, int index, Vector2 out) {
+		int columns = (int)Math.sqrt(members);
+		int x = index / columns;
+		int y = index % columns;
+		return out.set((int)position.x + x, (int)position.y + y);
+	}
 
+	/** Sends squads that are not controlled by the player toward the mothership */
+	public void assignObjective (Entity squad) {
+		if (Components.FACTION.get(squad).getFaction() == Constants.playerFaction) return;
+
+		SquadComponent squadComp = Components.SQUAD.get(squad);
+		squadComp.setTarget(mothershipPosition);
+		if (navigationSystem != null) squadComp.flowField = navigationSystem.getFlowField(mothershipPosition);
+	}
 
 	@Override
 	public void update (float deltaTime) {
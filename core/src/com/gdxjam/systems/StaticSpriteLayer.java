@@ -0,0 +1,276 @@
+package com.gdxjam.systems;
+
+import java.util.Comparator;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.gdxjam.components.ParalaxComponent;
+import com.gdxjam.components.PhysicsComponent;
+import com.gdxjam.components.SpriteComponent;
+import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.SpriteRegions;
+import com.gdxjam.ecs.TransformMirror;
+
+/** Keeps the sprites that never move, static bodies such as asteroids and the parallax background art, in a {@link SpriteCache}
+ * so their vertices are uploaded once instead of every frame. World sprites are grouped into square chunks, each parallax layer is
+ * a chunk of its own, and every chunk is a cache drawn with a single call when it is visible.
+ * <p>
+ * Removing a sprite only rebuilds its chunk, which can reuse its cache because it holds fewer sprites than before. Adding one
+ * rebuilds every chunk, growing the cache when it is full. Both are deferred until the next {@link #draw(CameraSystem)}. */
+public class StaticSpriteLayer implements EntityListener, Disposable {
+
+	public static final float CHUNK_SIZE = 32.0f;
+	private static final int INITIAL_CAPACITY = 256;
+	private static final int MAX_INDEXED_SPRITES = 8191;
+
+	private SpriteCache cache;
+	private int capacity;
+
+	private final Array<Chunk> chunks = new Array<Chunk>();
+	private final IntMap<Chunk> worldChunks = new IntMap<Chunk>();
+	// Parallax chunks sorted by layer
+	private final Array<Chunk> paralaxChunks = new Array<Chunk>();
+	private final ObjectMap<Entity, Chunk> entityChunks = new ObjectMap<Entity, Chunk>();
+	private boolean rebuildAll = false;
+	private int renderCalls = 0;
+
+	// Scratch bounds of the sprite being added to a cache
+	private float spriteX;
+	private float spriteY;
+	private float spriteRotation;
+
+	private final Comparator<Entity> textureComparator = new Comparator<Entity>() {
+		@Override
+		public int compare (Entity e1, Entity e2) {
+			int t1 = SpriteRegions.getTexture(Components.SPRITE.get(e1).getRegion());
+			int t2 = SpriteRegions.getTexture(Components.SPRITE.get(e2).getRegion());
+			return t1 < t2 ? -1 : (t1 == t2 ? 0 : 1);
+		}
+	};
+
+	public StaticSpriteLayer () {
+		createCache(INITIAL_CAPACITY);
+	}
+
+	/** @return true for sprites of parallax art and of static bodies */
+	public static boolean isStatic (Entity entity) {
+		if (!Components.SPRITE.has(entity)) return false;
+		if (Components.PARALAX.has(entity)) return true;
+		PhysicsComponent physics = Components.PHYSICS.get(entity);
+		return physics != null && physics.getBody().getType() == BodyType.StaticBody;
+	}
+
+	@Override
+	public void entityAdded (Entity entity) {
+		if (!isStatic(entity)) return;
+
+		ParalaxComponent paralax = Components.PARALAX.get(entity);
+		Chunk chunk;
+		if (paralax != null) {
+			chunk = getParalaxChunk(paralax.layer);
+		} else {
+			// Static bodies never move, their chunk is chosen once from the mirrored transform
+			PhysicsComponent physics = Components.PHYSICS.get(entity);
+			TransformMirror transforms = physics.getTransforms();
+			int chunkX = (int)Math.floor(transforms.getX(physics.getSlot()) / CHUNK_SIZE);
+			int chunkY = (int)Math.floor(transforms.getY(physics.getSlot()) / CHUNK_SIZE);
+			int key = (chunkX & 0xFFFF) | (chunkY << 16);
+			chunk = worldChunks.get(key);
+			if (chunk == null) {
+				chunk = new Chunk(-1);
+				worldChunks.put(key, chunk);
+				chunks.add(chunk);
+			}
+		}
+
+		chunk.entities.add(entity);
+		entityChunks.put(entity, chunk);
+		rebuildAll = true;
+	}
+
+	private Chunk getParalaxChunk (int layer) {
+		int index = 0;
+		for (; index < paralaxChunks.size; index++) {
+			Chunk chunk = paralaxChunks.get(index);
+			if (chunk.layer == layer) return chunk;
+			if (chunk.layer > layer) break;
+		}
+
+		Chunk chunk = new Chunk(layer);
+		paralaxChunks.insert(index, chunk);
+		chunks.add(chunk);
+		return chunk;
+	}
+
+	@Override
+	public void entityRemoved (Entity entity) {
+		Chunk chunk = entityChunks.remove(entity);
+		if (chunk == null) return;
+		chunk.entities.removeValue(entity, true);
+		chunk.dirty = true;
+	}
+
+	/** @return true if the sprite of the entity is drawn by this layer */
+	public boolean contains (Entity entity) {
+		return entityChunks.containsKey(entity);
+	}
+
+	/** Rebuilds the chunks that changed and draws the visible ones, parallax layers first */
+	public void draw (CameraSystem cameraSystem) {
+		if (rebuildAll)
+			rebuildAll();
+		else {
+			for (int i = 0; i < chunks.size; i++) {
+				Chunk chunk = chunks.get(i);
+				if (chunk.dirty) rebuild(chunk);
+			}
+		}
+
+		renderCalls = 0;
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+		// Layer 0 is the background, the planets are drawn over it
+		for (int i = 0; i < paralaxChunks.size; i++) {
+			Chunk chunk = paralaxChunks.get(i);
+			if (chunk.entities.size == 0) continue;
+			cache.setProjectionMatrix(cameraSystem.getParalaxCamera(chunk.layer).combined);
+			cache.begin();
+			cache.draw(chunk.cacheId);
+			cache.end();
+			renderCalls += cache.renderCalls;
+		}
+
+		OrthographicCamera camera = cameraSystem.getCamera();
+		cache.setProjectionMatrix(camera.combined);
+		cache.begin();
+		for (int i = 0; i < chunks.size; i++) {
+			Chunk chunk = chunks.get(i);
+			if (chunk.layer >= 0 || chunk.entities.size == 0) continue;
+			Rectangle bounds = chunk.bounds;
+			if (!camera.frustum.boundsInFrustum(bounds.x + bounds.width * 0.5f, bounds.y + bounds.height * 0.5f, 0,
+				bounds.width * 0.5f, bounds.height * 0.5f, 0)) continue;
+			cache.draw(chunk.cacheId);
+		}
+		cache.end();
+		renderCalls += cache.renderCalls;
+	}
+
+	/** Redefines the cache of the chunk, it holds fewer sprites than when the cache was created */
+	private void rebuild (Chunk chunk) {
+		cache.beginCache(chunk.cacheId);
+		fill(chunk);
+		cache.endCache();
+		chunk.dirty = false;
+	}
+
+	private void rebuildAll () {
+		int total = 0;
+		for (int i = 0; i < chunks.size; i++)
+			total += chunks.get(i).entities.size;
+
+		if (total > capacity) {
+			cache.dispose();
+			createCache(Math.max(total, capacity * 2));
+		} else {
+			cache.clear();
+		}
+
+		for (int i = 0; i < chunks.size; i++) {
+			Chunk chunk = chunks.get(i);
+			cache.beginCache();
+			fill(chunk);
+			chunk.cacheId = cache.endCache();
+			chunk.dirty = false;
+		}
+		rebuildAll = false;
+	}
+
+	private void fill (Chunk chunk) {
+		// Sprites sharing an atlas page are added together so the cache draws each page once
+		chunk.entities.sort(textureComparator);
+		Rectangle bounds = chunk.bounds;
+		for (int i = 0; i < chunk.entities.size; i++) {
+			Entity entity = chunk.entities.get(i);
+			SpriteComponent spriteComp = Components.SPRITE.get(entity);
+			float width = spriteComp.getWidth();
+			float height = spriteComp.getHeight();
+			locate(entity, width, height);
+			cache.add(SpriteRegions.get(spriteComp.getRegion()), spriteX, spriteY, width * 0.5f, height * 0.5f, width, height, 1, 1,
+				spriteRotation);
+
+			// The half diagonal bounds the sprite whatever its rotation
+			float extent = (float)Math.sqrt(width * width + height * height) * 0.5f;
+			float minX = spriteX + width * 0.5f - extent;
+			float minY = spriteY + height * 0.5f - extent;
+			if (i == 0) {
+				bounds.set(minX, minY, extent * 2, extent * 2);
+			} else {
+				float maxX = Math.max(bounds.x + bounds.width, minX + extent * 2);
+				float maxY = Math.max(bounds.y + bounds.height, minY + extent * 2);
+				bounds.x = Math.min(bounds.x, minX);
+				bounds.y = Math.min(bounds.y, minY);
+				bounds.width = maxX - bounds.x;
+				bounds.height = maxY - bounds.y;
+			}
+		}
+		if (chunk.entities.size == 0) bounds.set(0, 0, 0, 0);
+	}
+
+	/** Sets the bottom left corner and rotation of the sprite of the entity */
+	private void locate (Entity entity, float width, float height) {
+		ParalaxComponent paralax = Components.PARALAX.get(entity);
+		if (paralax != null) {
+			spriteX = paralax.worldX;
+			spriteY = paralax.worldY;
+			spriteRotation = 0;
+		} else {
+			PhysicsComponent physics = Components.PHYSICS.get(entity);
+			TransformMirror transforms = physics.getTransforms();
+			int slot = physics.getSlot();
+			spriteX = transforms.getX(slot) - width * 0.5f;
+			spriteY = transforms.getY(slot) - height * 0.5f;
+			spriteRotation = transforms.getAngle(slot) * MathUtils.radiansToDegrees;
+		}
+	}
+
+	private void createCache (int capacity) {
+		this.capacity = capacity;
+		cache = new SpriteCache(capacity, capacity <= MAX_INDEXED_SPRITES);
+	}
+
+	/** @return the number of draw calls made by the last {@link #draw(CameraSystem)} */
+	public int getRenderCalls () {
+		return renderCalls;
+	}
+
+	@Override
+	public void dispose () {
+		cache.dispose();
+	}
+
+	private static class Chunk {
+		/** The parallax layer of the chunk or -1 for world chunks */
+		public final int layer;
+		public final Array<Entity> entities = new Array<Entity>();
+		public final Rectangle bounds = new Rectangle();
+		public int cacheId = -1;
+		public boolean dirty = false;
+
+		public Chunk (int layer) {
+			this.layer = layer;
+		}
+	}
+
+}
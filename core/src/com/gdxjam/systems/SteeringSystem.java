@@ -48,17 +48,17 @@ public class SteeringSystem extends IteratingSystem{
 		
 		else {
 			// If we haven't got any velocity, then we can do nothing.
-			Vector2 linVel = body.getLinearVelocity();
+			Vector2 linVel = steerable.getLinearVelocity();
 			if (!linVel.isZero(steerable.getZeroLinearSpeedThreshold())) {
 				float newOrientation = steerable.vectorToAngle(linVel);
 				body.setAngularVelocity((newOrientation - steerable.getAngularVelocity()) * deltaTime); // this is superfluous if independentFacing is always true
-				body.setTransform(body.getPosition(), newOrientation);
+				steerable.setOrientation(newOrientation);
 			}
 		}
 
 		if (anyAccelerations) {
 			// Cap the linear speed
-			Vector2 velocity = body.getLinearVelocity();
+			Vector2 velocity = steerable.getLinearVelocity();
 			float currentSpeedSquare = velocity.len2();
 			float maxLinearSpeed = steerable.getMaxLinearSpeed();
 			if (currentSpeedSquare > maxLinearSpeed * maxLinearSpeed) {
@@ -75,7 +75,7 @@ public class SteeringSystem extends IteratingSystem{
 	
 	@Override
 	public boolean checkProcessing () {
-		return !GameManager.isPaused();
+		return super.checkProcessing() && !GameManager.isPaused();
 	}
 
 }
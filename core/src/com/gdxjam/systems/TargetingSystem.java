@@ -0,0 +1,282 @@
+package com.gdxjam.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.ObjectFloatMap.Entries;
+import com.badlogic.gdx.utils.ObjectFloatMap.Entry;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pool.Poolable;
+import com.gdxjam.GameManager;
+import com.gdxjam.ai.steer.GridProximity;
+import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.components.HealthComponent;
+import com.gdxjam.components.SquadComponent;
+import com.gdxjam.components.UnitComponent;
+import com.gdxjam.components.WeaponComponent;
+import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.DamageListener;
+import com.gdxjam.ecs.EntityCategory;
+import com.gdxjam.ecs.Restartable;
+import com.gdxjam.ecs.SpatialGrid;
+
+/** Chooses the targets of squads and units by scoring the candidates. Enemy squads are scored by distance, remaining health, the
+ * damage per second of their members and the damage already directed at them. Units pick an enemy unit found in the spatial index
+ * around them, preferring the members of their squads target.
+ * <p>
+ * The damage per second coming in on every entity is estimated from the hits reported by the {@link HealthSystem} and fades out
+ * over {@link #OVERKILL_WINDOW}. A unit switching targets moves its own damage from the old target to the new one right away, so
+ * units spread their fire instead of all shooting at a target that is already going to die. Squad scores are computed once per
+ * tick and shared by every squad considering the same enemy. */
+public class TargetingSystem extends EntitySystem implements DamageListener, EntityListener, Restartable {
+
+	/** Radius around a unit in which enemy units are considered */
+	public static final float ENGAGE_RADIUS = 30.0f;
+	/** Seconds of incoming damage counted against the remaining health of a target when looking for overkill */
+	public static final float OVERKILL_WINDOW = 1.0f;
+	/** Damage per second at which the threat of a target is scored half way */
+	public static final float REFERENCE_DPS = 20.0f;
+
+	private static final float DISTANCE_WEIGHT = 1.0f;
+	private static final float HEALTH_WEIGHT = 1.0f;
+	private static final float THREAT_WEIGHT = 0.5f;
+	private static final float FOCUS_WEIGHT = 1.0f;
+	private static final float OVERKILL_WEIGHT = 3.0f;
+
+	// Estimates below this are dropped
+	private static final float MIN_DPS = 0.1f;
+
+	private SpatialIndexSystem spatialIndex;
+
+	// Best candidate of the unit query in progress
+	private Entity bestUnit;
+	private float bestUnitScore;
+
+	private final ObjectFloatMap<Entity> incomingDps = new ObjectFloatMap<Entity>();
+	private final ObjectMap<Entity, SquadScore> squadScores = new ObjectMap<Entity, SquadScore>();
+	private final Array<SquadScore> activeScores = new Array<SquadScore>(false, 32);
+	private final Pool<SquadScore> scorePool = new Pool<SquadScore>() {
+		@Override
+		protected SquadScore newObject () {
+			return new SquadScore();
+		}
+	};
+
+	@Override
+	public void addedToEngine (Engine engine) {
+		super.addedToEngine(engine);
+		spatialIndex = engine.getSystem(SpatialIndexSystem.class);
+		// Entities go back to the pool when removed, the estimate must not carry over to the next entity taken from it
+		engine.addEntityListener(Family.all(HealthComponent.class).get(), this);
+	}
+
+	@Override
+	public void removedFromEngine (Engine engine) {
+		super.removedFromEngine(engine);
+		engine.removeEntityListener(this);
+		clearScores();
+		incomingDps.clear();
+	}
+
+	@Override
+	public void update (float deltaTime) {
+		clearScores();
+
+		// Only the entities that were recently hit or targeted have an estimate to fade
+		float fade = Math.max(1 - deltaTime / OVERKILL_WINDOW, 0);
+		Entries<Entity> entries = incomingDps.entries();
+		while (entries.hasNext()) {
+			Entry<Entity> entry = entries.next();
+			float dps = entry.value * fade;
+			if (dps < MIN_DPS)
+				entries.remove();
+			else
+				incomingDps.put(entry.key, dps);
+		}
+	}
+
+	/** Adds the hit to the damage per second estimate of the target, spread over {@link #OVERKILL_WINDOW} */
+	@Override
+	public void damaged (Entity target, int amount, Faction source) {
+		incomingDps.getAndIncrement(target, 0, amount / OVERKILL_WINDOW);
+	}
+
+	@Override
+	public void killed (Entity target, Faction source) {
+		incomingDps.remove(target, 0);
+	}
+
+	@Override
+	public void entityAdded (Entity entity) {
+	}
+
+	@Override
+	public void entityRemoved (Entity entity) {
+		incomingDps.remove(entity, 0);
+	}
+
+	@Override
+	public void restart () {
+		clearScores();
+		incomingDps.clear();
+	}
+
+	private void clearScores () {
+		scorePool.freeAll(activeScores);
+		activeScores.clear();
+		squadScores.clear();
+	}
+
+	/** @return the best enemy squad tracked by the squad or null if it is not tracking any */
+	public Entity selectSquad (Entity squad) {
+		SquadComponent squadComp = Components.SQUAD.get(squad);
+		Vector2 position = Components.STEERABLE.get(squad).getPosition();
+
+		Entity best = null;
+		float bestScore = -Float.MAX_VALUE;
+		for (int i = 0; i < squadComp.enemiesTracked.size; i++) {
+			Entity enemy = squadComp.enemiesTracked.get(i);
+			SquadScore score = getSquadScore(enemy);
+			if (score.members == 0) continue;
+
+			float distance = Components.STEERABLE.get(enemy).getPosition().dst(position);
+			float value = DISTANCE_WEIGHT * (1 - Math.min(distance / ENGAGE_RADIUS, 1)) + HEALTH_WEIGHT
+				* (1 - (float)score.health / score.maxHealth) + THREAT_WEIGHT * score.dps / (score.dps + REFERENCE_DPS)
+				- OVERKILL_WEIGHT * Math.min(score.incomingDps * OVERKILL_WINDOW / Math.max(score.health, 1), 1);
+
+			if (value > bestScore) {
+				bestScore = value;
+				best = enemy;
+			}
+		}
+		return best;
+	}
+
+	/** Picks the enemy unit the unit should attack and moves the units damage from its current target to the new one.
+	 * @return the best enemy unit around the unit or null if there is none in range */
+	public Entity selectUnit (Entity squad, Entity unit) {
+		Vector2 position = Components.STEERABLE.get(unit).getPosition();
+		Entity focus = Components.TARGET.get(squad).getTarget();
+		int enemies = ~GridProximity.factionBit(Components.FACTION.get(unit).getFaction());
+
+		bestUnit = null;
+		bestUnitScore = -Float.MAX_VALUE;
+		scoreUnits(spatialIndex.getDynamicGrid(), position.x, position.y, enemies, focus);
+		scoreUnits(spatialIndex.getStaticGrid(), position.x, position.y, enemies, focus);
+
+		Entity best = bestUnit;
+		bestUnit = null;
+		Entity old = Components.TARGET.get(unit).getTarget();
+		if (best != null && best != old && Components.WEAPON.has(unit)) {
+			float dps = getDps(Components.WEAPON.get(unit));
+			if (old != null && incomingDps.containsKey(old)) {
+				float remaining = incomingDps.get(old, 0) - dps;
+				if (remaining < MIN_DPS)
+					incomingDps.remove(old, 0);
+				else
+					incomingDps.put(old, remaining);
+			}
+			incomingDps.getAndIncrement(best, 0, dps);
+		}
+		return best;
+	}
+
+	private void scoreUnits (SpatialGrid grid, float x, float y, int factionMask, Entity focus) {
+		if (grid.getSize() == 0) return;
+
+		float extent = ENGAGE_RADIUS + grid.getMaxRadius(EntityCategory.UNIT);
+		int minX = grid.getCellX(x - extent);
+		int maxX = grid.getCellX(x + extent);
+		int minY = grid.getCellY(y - extent);
+		int maxY = grid.getCellY(y + extent);
+
+		for (int cellY = minY; cellY <= maxY; cellY++) {
+			for (int cellX = minX; cellX <= maxX; cellX++) {
+				for (int entry = grid.getHead(cellX, cellY); entry != SpatialGrid.NONE; entry = grid.getNext(entry)) {
+					if (!grid.matches(entry, EntityCategory.UNIT, factionMask)) continue;
+
+					float dx = grid.getX(entry) - x;
+					float dy = grid.getY(entry) - y;
+					float distance = (float)Math.sqrt(dx * dx + dy * dy);
+					if (distance > ENGAGE_RADIUS) continue;
+
+					Entity candidate = grid.getEntity(entry);
+					HealthComponent health = Components.HEALTH.get(candidate);
+					if (health == null || health.value <= health.min) continue;
+
+					float value = DISTANCE_WEIGHT * (1 - distance / ENGAGE_RADIUS) + HEALTH_WEIGHT
+						* (1 - (float)health.value / health.max) - OVERKILL_WEIGHT
+						* Math.min(incomingDps.get(candidate, 0) * OVERKILL_WINDOW / health.value, 1);
+
+					WeaponComponent weapon = Components.WEAPON.get(candidate);
+					if (weapon != null) value += THREAT_WEIGHT * getDps(weapon) / (getDps(weapon) + REFERENCE_DPS);
+					UnitComponent unitComp = Components.UNIT.get(candidate);
+					if (focus != null && unitComp != null && unitComp.getSquad() == focus) value += FOCUS_WEIGHT;
+
+					if (value > bestUnitScore) {
+						bestUnitScore = value;
+						bestUnit = candidate;
+					}
+				}
+			}
+		}
+	}
+
+	/** @return the score inputs of the squad, gathered once per tick */
+	private SquadScore getSquadScore (Entity squad) {
+		SquadScore score = squadScores.get(squad);
+		if (score != null) return score;
+
+		score = scorePool.obtain();
+		Array<Entity> members = Components.SQUAD.get(squad).members;
+		for (int i = 0; i < members.size; i++) {
+			Entity member = members.get(i);
+			HealthComponent health = Components.HEALTH.get(member);
+			if (health == null) continue;
+
+			score.members++;
+			score.health += Math.max(health.value, 0);
+			score.maxHealth += health.max;
+			score.incomingDps += incomingDps.get(member, 0);
+			WeaponComponent weapon = Components.WEAPON.get(member);
+			if (weapon != null) score.dps += getDps(weapon);
+		}
+		squadScores.put(squad, score);
+		activeScores.add(score);
+		return score;
+	}
+
+	/** @return the damage per second of the weapon, attack speed being the seconds between shots */
+	public static float getDps (WeaponComponent weapon) {
+		return weapon.damage / Math.max(weapon.attackSpeed, 0.01f);
+	}
+
+	@Override
+	public boolean checkProcessing () {
+		return super.checkProcessing() && !GameManager.isPaused();
+	}
+
+	private static class SquadScore implements Poolable {
+		public int members;
+		public int health;
+		public int maxHealth;
+		public float dps;
+		public float incomingDps;
+
+		@Override
+		public void reset () {
+			members = 0;
+			health = 0;
+			maxHealth = 0;
+			dps = 0;
+			incomingDps = 0;
+		}
+	}
+
+}
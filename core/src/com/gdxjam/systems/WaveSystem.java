@@ -1,6 +1,6 @@
 package com.gdxjam.systems;
 
-import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
@@ -8,18 +8,22 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Timer;
 import com.badlogic.gdx.utils.Timer.Task;
 import com.gdxjam.GameManager;
-import com.gdxjam.components.FactionComponent.Faction;
-import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.Restartable;
 import com.gdxjam.utils.Constants;
-import com.gdxjam.utils.EntityFactory;
 
-public class WaveSystem extends EntitySystem{
+public class WaveSystem extends EntitySystem implements Restartable{
+	
+	/** Spawn group of the squads trickling in between waves */
+	private static final int TRICKLE_GROUP = -1;
 	
 	public static Array<Vector2> spawnPoints = new Array<Vector2>();
 	
 	private GUISystem guiSystem;
+	private SpawnSystem spawnSystem;
 	private WaveParam nextWave;
+	private int waveCount = 0;
 	private float nextWaveTime = 90;
+	private Task trickleTask;
 	
 	public WaveSystem (GUISystem guiSystem) {
 		this.guiSystem = guiSystem;
@@ -27,41 +31,33 @@ public class WaveSystem extends EntitySystem{
 		initalizeNextWave();
 	}
 	
+	@Override
+	public void addedToEngine (Engine engine) {
+		super.addedToEngine(engine);
+		spawnSystem = engine.getSystem(SpawnSystem.class);
+	}
+	
 	public static void addSpawnPoint(Vector2 spawnPoint){
 		spawnPoints.add(spawnPoint);
 	}
 	
-	public static void initalizeSpawns(){
-		Task task = new Task() {
+	public void initalizeSpawns(){
+		if(trickleTask != null) trickleTask.cancel();
+		trickleTask = new Task() {
 			
 			@Override
 			public void run () {
-				WaveSystem.spawnSquad(spawnPoints.random(), Constants.enemyFaction, 3);
+				spawnSystem.schedule(spawnPoints.random(), Constants.enemyFaction, 3, SpawnSystem.PREBUILD_TIME, TRICKLE_GROUP);
 			}
 		};
 		
-		Timer.schedule(task, 5.0f, 10.0f);
+		// Ordered one prebuild time ahead so the squads are built before they are due
+		Timer.schedule(trickleTask, Math.max(5.0f - SpawnSystem.PREBUILD_TIME, 0.0f), 10.0f);
 	}
 	
-	public static void spawnSquad(Vector2 position, Faction faction, int members){
-		Entity squad = EntityFactory.createSquad(position, faction);
-		int columns = (int)Math.sqrt(members);
-		int posX = (int)position.x;
-		int posY = (int)position.y;
-		for(int i = 0; i < members; i++) {
-			int x = i / columns;
-			int y = i % columns;
-			EntityFactory.createUnit(new Vector2(posX + x, posY + y), squad);
-		}
-		
-		if(faction != Constants.playerFaction){
-			Components.SQUAD.get(squad).setTarget(new Vector2(128, 128)); 	//TODO make dynamic
-		}
-	}
-	
-	
 	private void initalizeNextWave(){
 		WaveParam wave = new WaveParam();
+		wave.id = waveCount++;
 		wave.delay = MathUtils.random(120, 180);
 		wave.squadCount = MathUtils.random(3, 6);
 		
@@ -69,41 +65,57 @@ public class WaveSystem extends EntitySystem{
 		nextWaveTime = wave.delay;
 	}
 	
-	private void beginWave(WaveParam wave){
-		Task task = new Task() {
-			
-			@Override
-			public void run () {
-				WaveSystem.spawnSquad(spawnPoints.random(), Constants.enemyFaction, 5);
-			}
-		};
+	/** Hands the squads of the wave to the {@link SpawnSystem} early enough for them to be built before they are due */
+	private void scheduleWave(WaveParam wave){
+		wave.scheduled = true;
+		if(spawnPoints.size == 0) return;
 		
-		Timer.schedule(task, 0.0f, wave.spawnInterval, wave.squadCount);
+		for(int i = 0; i < wave.squadCount; i++){
+			spawnSystem.schedule(spawnPoints.random(), Constants.enemyFaction, wave.squadMembers, nextWaveTime + i * wave.spawnInterval,
+				wave.id);
+		}
 	}
 	
 	public void setTimeToNextWave(float time){
+		if(nextWave.scheduled) spawnSystem.shift(nextWave.id, time - nextWaveTime);
 		this.nextWaveTime = time;
 	}
 	
 	@Override
 	public void update (float deltaTime) {
 		super.update(deltaTime);
-		guiSystem.updateWaveTime(nextWaveTime);
+		if(guiSystem != null) guiSystem.updateWaveTime(nextWaveTime);
 		nextWaveTime -= deltaTime;
 		
+		if(!nextWave.scheduled && nextWaveTime <= SpawnSystem.PREBUILD_TIME){
+			scheduleWave(nextWave);
+		}
+		
 		if(nextWaveTime <= 0){
-			beginWave(nextWave);
 			initalizeNextWave();
 		}
 	}
 	
+	/** Stops the trickle of squads and forgets the spawn points, the next world adds its own */
+	@Override
+	public void restart () {
+		if(trickleTask != null) trickleTask.cancel();
+		trickleTask = null;
+		spawnPoints.clear();
+		waveCount = 0;
+		initalizeNextWave();
+	}
+	
 	@Override
 	public boolean checkProcessing () {
-		return !GameManager.isPaused();
+		return super.checkProcessing() && !GameManager.isPaused();
 	}
 	
 	public class WaveParam{
+		public int id;
+		public boolean scheduled = false;
 		public float delay = 100;
+		public int squadMembers = 5;
 		public int squadCount = 3;
 		public int directions = 5;
 		public float spawnInterval = 5.0f;
@@ -0,0 +1,36 @@
+package com.gdxjam.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.gdxjam.GameManager;
+import com.gdxjam.ai.state.UnitState;
+import com.gdxjam.components.FSMComponent;
+import com.gdxjam.components.TargetComponent;
+import com.gdxjam.components.WeaponComponent;
+import com.gdxjam.ecs.Components;
+
+/** Counts down weapon cooldowns with the engine delta so weapons fire at the same rate regardless of how the engine is driven. As
+ * before the cooldown only recovers while the unit is in combat with a target, it runs after the {@link FSMSystem} in the tick
+ * the weapon fired just like when the combat state counted it down itself. */
+public class WeaponSystem extends IteratingSystem {
+
+	public WeaponSystem () {
+		super(Family.all(WeaponComponent.class, FSMComponent.class, TargetComponent.class).get());
+	}
+
+	@Override
+	protected void processEntity (Entity entity, float deltaTime) {
+		if (Components.TARGET.get(entity).getTarget() == null) return;
+		if (!Components.FSM.get(entity).getStateMachine().isInState(UnitState.COMBAT)) return;
+
+		WeaponComponent weaponComp = Components.WEAPON.get(entity);
+		weaponComp.cooldown -= deltaTime;
+	}
+
+	@Override
+	public boolean checkProcessing () {
+		return super.checkProcessing() && !GameManager.isPaused();
+	}
+
+}
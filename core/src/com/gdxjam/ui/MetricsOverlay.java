@@ -0,0 +1,199 @@
+package com.gdxjam.ui;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.gdxjam.GameContext;
+import com.gdxjam.GameManager;
+import com.gdxjam.ai.state.TelegramStats;
+import com.gdxjam.ecs.EntityCategory;
+import com.gdxjam.systems.EntityRenderSystem;
+import com.gdxjam.systems.ParticleSystem;
+import com.gdxjam.systems.PhysicsSystem;
+import com.gdxjam.systems.ProjectileSystem;
+import com.gdxjam.utils.RuntimeStats;
+
+/** Debug overlay with a rolling frame time histogram and engine counters. Frame times are recorded every frame but the counters
+ * are only gathered and laid out into a glyph cache every {@link #REFRESH_INTERVAL} seconds, drawing the overlay in between only
+ * submits the cached vertices. The text is built in a reused {@link StringBuilder} so refreshing it does not allocate. */
+public class MetricsOverlay implements Disposable {
+
+	public static final float REFRESH_INTERVAL = 0.25f;
+	public static final int HISTOGRAM_SIZE = 120;
+
+	private static final float TARGET_FRAME_TIME = 1000.0f / 60.0f;
+	private static final float BAR_WIDTH = 2.0f;
+	private static final float PIXELS_PER_MILLISECOND = 2.0f;
+	private static final float PADDING = 10.0f;
+
+	private static final short[] CATEGORIES = {EntityCategory.UNIT, EntityCategory.SQUAD, EntityCategory.RESOURCE,
+		EntityCategory.PROJECTILE, EntityCategory.GRAPHICS};
+	private static final String[] CATEGORY_NAMES = {"units", "squads", "resources", "projectiles", "graphics"};
+
+	private final Engine engine;
+	private final World world;
+	private final EntityRenderSystem renderSystem;
+	private final ProjectileSystem projectileSystem;
+	private final ParticleSystem particleSystem;
+
+	private final BitmapFontCache cache;
+	private final StringBuilder text = new StringBuilder(512);
+	private final ShapeRenderer shapeRenderer = GameContext.getShapeRenderer();
+
+	private final float[] frameTimes = new float[HISTOGRAM_SIZE];
+	private int frameIndex = 0;
+
+	private final int[] categoryCounts = new int[CATEGORIES.length];
+	private final Array<Body> bodies = new Array<Body>();
+
+	private float refreshTimer = REFRESH_INTERVAL;
+	private int lastTelegrams = 0;
+	private boolean visible = false;
+
+	public MetricsOverlay (Engine engine, BitmapFont font) {
+		this.engine = engine;
+		this.world = engine.getSystem(PhysicsSystem.class).getWorld();
+		this.renderSystem = engine.getSystem(EntityRenderSystem.class);
+		this.projectileSystem = engine.getSystem(ProjectileSystem.class);
+		this.particleSystem = engine.getSystem(ParticleSystem.class);
+		this.cache = new BitmapFontCache(font);
+	}
+
+	public void setVisible (boolean visible) {
+		this.visible = visible;
+		refreshTimer = REFRESH_INTERVAL;
+	}
+
+	public boolean isVisible () {
+		return visible;
+	}
+
+	/** Records the frame time. The histogram is kept up to date while hidden so it is already filled once shown. */
+	public void update (float deltaTime) {
+		frameTimes[frameIndex] = deltaTime * 1000.0f;
+		frameIndex = (frameIndex + 1) % HISTOGRAM_SIZE;
+
+		if (!visible) return;
+		refreshTimer += deltaTime;
+		if (refreshTimer >= REFRESH_INTERVAL) {
+			refresh(refreshTimer);
+			refreshTimer = 0;
+		}
+	}
+
+	private void refresh (float elapsed) {
+		text.setLength(0);
+
+		float total = 0, max = 0;
+		for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+			total += frameTimes[i];
+			max = Math.max(max, frameTimes[i]);
+		}
+		text.append("frame ");
+		appendDecimal(total / HISTOGRAM_SIZE);
+		text.append(" ms avg  ");
+		appendDecimal(max);
+		text.append(" ms max  ").append(Gdx.graphics.getFramesPerSecond()).append(" fps\n");
+
+		ImmutableArray<Entity> entities = engine.getEntities();
+		for (int i = 0; i < categoryCounts.length; i++)
+			categoryCounts[i] = 0;
+		for (int i = 0; i < entities.size(); i++) {
+			int flags = entities.get(i).flags;
+			for (int c = 0; c < CATEGORIES.length; c++) {
+				if ((flags & CATEGORIES[c]) != 0) categoryCounts[c]++;
+			}
+		}
+		text.append("entities ").append(entities.size());
+		for (int c = 0; c < CATEGORIES.length; c++)
+			text.append("  ").append(CATEGORY_NAMES[c]).append(' ').append(categoryCounts[c]);
+		text.append('\n');
+
+		int fixtures = 0;
+		world.getBodies(bodies);
+		for (int i = 0; i < bodies.size; i++)
+			fixtures += bodies.get(i).getFixtureList().size;
+		bodies.clear();
+		text.append("box2d bodies ").append(world.getBodyCount()).append("  fixtures ").append(fixtures).append("  contacts ")
+			.append(world.getContactCount()).append('\n');
+
+		if (renderSystem != null) {
+			text.append("drawn ").append(renderSystem.getDrawnEntities()).append("  batches ").append(renderSystem.getRenderCalls())
+				.append("  ");
+		}
+		if (projectileSystem != null) text.append("shots ").append(projectileSystem.getSize()).append("  ");
+		if (particleSystem != null) {
+			text.append("particle effects ").append(particleSystem.getEffectCount()).append("  particles ")
+				.append(particleSystem.getParticleCount()).append('/').append(ParticleSystem.particleBudget);
+		}
+		text.append('\n');
+
+		int telegrams = TelegramStats.getTotal();
+		text.append("telegrams/s ").append((int)((telegrams - lastTelegrams) / elapsed)).append('\n');
+		lastTelegrams = telegrams;
+
+		text.append("heap ").append((int)(Gdx.app.getJavaHeap() / (1024 * 1024))).append(" MB  native ")
+			.append((int)(Gdx.app.getNativeHeap() / (1024 * 1024))).append(" MB");
+		RuntimeStats stats = GameManager.getRuntimeStats();
+		if (stats != null) {
+			text.append("  gc ").append(stats.getCollectionCount()).append(" runs ").append(stats.getCollectionTime())
+				.append(" ms");
+		}
+
+		cache.setMultiLineText(text, 0, 0);
+	}
+
+	/** Appends a positive value with a single decimal without going through {@link Float#toString(float)} */
+	private void appendDecimal (float value) {
+		int scaled = Math.round(value * 10);
+		text.append(scaled / 10).append('.').append(scaled % 10);
+	}
+
+	public void draw (Batch batch, Matrix4 projection) {
+		if (!visible) return;
+
+		float histogramHeight = TARGET_FRAME_TIME * 2 * PIXELS_PER_MILLISECOND;
+		shapeRenderer.setProjectionMatrix(projection);
+		shapeRenderer.begin(ShapeType.Filled);
+		for (int i = 0; i < HISTOGRAM_SIZE; i++) {
+			// Oldest frame on the left
+			float time = frameTimes[(frameIndex + i) % HISTOGRAM_SIZE];
+			if (time <= TARGET_FRAME_TIME)
+				shapeRenderer.setColor(Color.GREEN);
+			else if (time <= TARGET_FRAME_TIME * 2)
+				shapeRenderer.setColor(Color.YELLOW);
+			else
+				shapeRenderer.setColor(Color.RED);
+			shapeRenderer.rect(PADDING + i * BAR_WIDTH, PADDING, BAR_WIDTH, Math.min(time, TARGET_FRAME_TIME * 2)
+				* PIXELS_PER_MILLISECOND);
+		}
+		shapeRenderer.setColor(Color.WHITE);
+		shapeRenderer.rect(PADDING, PADDING + TARGET_FRAME_TIME * PIXELS_PER_MILLISECOND, HISTOGRAM_SIZE * BAR_WIDTH, 1);
+		shapeRenderer.end();
+
+		cache.setPosition(PADDING, PADDING * 2 + histogramHeight + cache.getFont().getLineHeight() * 6);
+		batch.setProjectionMatrix(projection);
+		batch.begin();
+		cache.draw(batch);
+		batch.end();
+	}
+
+	@Override
+	public void dispose () {
+		// The shape renderer belongs to the context
+	}
+
+}
@@ -17,10 +17,16 @@ public class Constants {
 	public static final float unitRadius = 0.5f;
 	public static final float mothershipRadius = 4f;
 	public static final float projectileRadius = 0.25f;
+	public static final float projectileVelocity = 45;
+	public static final int weaponDamage = 20;
+	/** Seconds between the shots of a weapon */
+	public static final float weaponAttackSpeed = 1.0f;
 	public static final float projectileDecayTime = 2.0f;
 	public static final float baseAsteroidResourceAmt = 100;
 
 	public static final float PIXEL_PER_METER = 32;
+	/** Below this many screen pixels per world unit squads are drawn as a single icon instead of their units */
+	public static float impostorPixelsPerUnit = 8.0f;
 
 	public static final CharSequence GAME_TITLE = "Orion";
 
@@ -0,0 +1,46 @@
+package com.gdxjam.utils;
+
+import com.badlogic.ashley.core.Entity;
+import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.ecs.DamageListener;
+
+/** Counts the damage dealt and the kills of each {@link Faction} from the hits reported by the
+ * {@link com.gdxjam.systems.HealthSystem} */
+public class DamageStats implements DamageListener {
+
+	private final int[] damage = new int[Faction.values().length];
+	private final int[] kills = new int[Faction.values().length];
+	private int hits;
+
+	@Override
+	public void damaged (Entity target, int amount, Faction source) {
+		hits++;
+		if (source != null) damage[source.ordinal()] += amount;
+	}
+
+	@Override
+	public void killed (Entity target, Faction source) {
+		if (source != null) kills[source.ordinal()]++;
+	}
+
+	public int getHits () {
+		return hits;
+	}
+
+	public int getDamage (Faction faction) {
+		return damage[faction.ordinal()];
+	}
+
+	public int getKills (Faction faction) {
+		return kills[faction.ordinal()];
+	}
+
+	public void reset () {
+		hits = 0;
+		for (int i = 0; i < damage.length; i++) {
+			damage[i] = 0;
+			kills[i] = 0;
+		}
+	}
+
+}
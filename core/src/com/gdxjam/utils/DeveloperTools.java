@@ -5,6 +5,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Vector2;
 import com.gdxjam.GameManager;
 import com.gdxjam.systems.CameraSystem;
+import com.gdxjam.systems.SquadSystem;
 import com.gdxjam.systems.WaveSystem;
 
 public class DeveloperTools {
@@ -15,7 +16,7 @@ public class DeveloperTools {
 		PooledEngine engine = GameManager.getEngine();
 		Vector2 pos = engine.getSystem(CameraSystem.class).screenToWorldCords(Gdx.input.getX(), Gdx.input.getY());
 		
-		WaveSystem.spawnSquad(pos, Constants.enemyFaction, 1);
+		engine.getSystem(SquadSystem.class).createSquad(pos, Constants.enemyFaction, 1);
 	}
 	
 	public static void startWaveNow(){
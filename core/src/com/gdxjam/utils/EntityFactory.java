@@ -4,14 +4,7 @@ package com.gdxjam.utils;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.PooledEngine;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.ai.steer.SteeringBehavior;
-import com.badlogic.gdx.ai.steer.behaviors.Arrive;
-import com.badlogic.gdx.ai.steer.behaviors.BlendedSteering;
 import com.badlogic.gdx.ai.steer.behaviors.LookWhereYouAreGoing;
-import com.badlogic.gdx.ai.steer.behaviors.Separation;
-import com.badlogic.gdx.ai.steer.limiters.NullLimiter;
-import com.badlogic.gdx.ai.steer.proximities.RadiusProximity;
-import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
@@ -25,13 +18,13 @@ import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.gdxjam.Assets;
 import com.gdxjam.ai.state.UnitState;
+import com.gdxjam.ai.steer.GridProximity;
 import com.gdxjam.components.DecayComponent;
 import com.gdxjam.components.FSMComponent;
 import com.gdxjam.components.FactionComponent;
 import com.gdxjam.components.FactionComponent.Faction;
 import com.gdxjam.components.HealthComponent;
 import com.gdxjam.components.ParalaxComponent;
-import com.gdxjam.components.ParticleComponent;
 import com.gdxjam.components.PhysicsComponent;
 import com.gdxjam.components.ProjectileComponent;
 import com.gdxjam.components.ResourceComponent;
@@ -42,11 +35,14 @@ import com.gdxjam.components.SteeringBehaviorComponent;
 import com.gdxjam.components.TargetComponent;
 import com.gdxjam.components.UnitComponent;
 import com.gdxjam.components.WeaponComponent;
+import com.gdxjam.ecs.Archetype;
+import com.gdxjam.ecs.Archetypes;
 import com.gdxjam.ecs.Components;
 import com.gdxjam.ecs.EntityCategory;
-import com.gdxjam.systems.ParticleSystem;
-import com.gdxjam.systems.ParticleSystem.ParticleType;
+import com.gdxjam.ecs.EntityManager;
 import com.gdxjam.systems.PhysicsSystem;
+import com.gdxjam.systems.ProjectileSystem;
+import com.gdxjam.systems.SpatialIndexSystem;
 import com.gdxjam.utils.EntityFactory.PhysicsBuilder.FixtureBuilder;
 
 /** @author Torin Wiebelt (Twiebs) Creates Ashley entities using a builder */
@@ -56,19 +52,32 @@ public class EntityFactory {
 	private static final String TAG = "[" + EntityFactory.class.getSimpleName() + "]";
 
 	private static PooledEngine engine;
+	private static boolean headless;
 	private static PhysicsSystem physicsSystem;
+	private static SpatialIndexSystem spatialIndex;
+	private static ProjectileSystem projectileSystem;
 	private static EntityBuilder builder = new EntityBuilder();
 
 	private static PhysicsBuilder physicsBuilder = new PhysicsBuilder();
 	private static FixtureBuilder fixtureBuilder = new FixtureBuilder();
 
+	private static Archetype unitArchetype;
+	private static Archetype asteroidArchetype;
+	private static Archetype projectileArchetype;
+	private static Archetype squadArchetype;
+
+	private static final float SQUAD_SENSOR_RADIUS = 30.0f;
+
 	public static Entity createMothership (Vector2 position) {
-		Entity entity = builder
+		EntityBuilder mothership = builder
 			.createEntity(EntityCategory.MOTHERSHIP | EntityCategory.SQUAD, position)
 			.physicsBody(BodyType.StaticBody)
-			.circleCollider(Constants.mothershipRadius, 1.0f)
-			.sprite(Assets.spacecraft.motherships.get(Constants.playerFaction.ordinal()), Constants.mothershipRadius * 2,
-				Constants.mothershipRadius * 2).faction(Constants.playerFaction).health(10000).steerable(Constants.mothershipRadius)
+			.circleCollider(Constants.mothershipRadius, 1.0f);
+		if (!headless) {
+			mothership.sprite(Assets.spacecraft.motherships.get(Constants.playerFaction.ordinal()), Constants.mothershipRadius * 2,
+				Constants.mothershipRadius * 2);
+		}
+		Entity entity = mothership.faction(Constants.playerFaction).health(10000).steerable(Constants.mothershipRadius)
 			.filter(EntityCategory.MOTHERSHIP, 0, EntityCategory.PROJECTILE).steeringBehavior().weapon(55, 2.0f, 1).target()
 			.stateMachine().addToEngine();
 
@@ -76,11 +85,8 @@ public class EntityFactory {
 	}
 
 	public static Entity createAsteroid (Vector2 position, float radius) {
-		Entity entity = builder.createEntity(EntityCategory.RESOURCE, position).physicsBody(BodyType.StaticBody)
-			.circleCollider(radius, 50.0f)
-			.filter(EntityCategory.RESOURCE, 0, EntityCategory.PROJECTILE | EntityCategory.SQUAD | EntityCategory.UNIT)
-			.resource((int)(Constants.baseAsteroidResourceAmt * radius)).steerable(radius).faction(Faction.NONE)
-			.sprite(Assets.space.asteroids.random(), radius * 2, radius * 2).addToEngine();
+		Entity entity = instantiate(asteroidArchetype, position.x, position.y, 0.0f, radius, Faction.NONE);
+		engine.addEntity(entity);
 		return entity;
 	}
 
@@ -94,36 +100,48 @@ public class EntityFactory {
 	}
 
 	public static Entity createUnit (Vector2 position, Entity squad) {
+		Entity entity = buildUnit(position, squad);
+		engine.addEntity(entity);
+		return entity;
+	}
+
+	/** Builds a unit without adding it to the engine. The unit is already a member of the squads formation. */
+	public static Entity buildUnit (Vector2 position, Entity squad) {
 		SquadComponent squadComp = Components.SQUAD.get(squad);
 		Faction faction = Components.FACTION.get(squad).getFaction();
 
-		Entity entity = builder.createEntity(EntityCategory.UNIT, position).physicsBody(BodyType.DynamicBody)
-			.circleCollider(Constants.unitRadius, 1.0f).damping(1, 0).steerable(Constants.unitRadius).steeringBehavior().health(100)
-			.faction(faction).target().weapon(20, 1.0f, Constants.projectileRadius)
-			.sprite(Assets.spacecraft.ships.get(faction.ordinal()), Constants.unitRadius * 2, Constants.unitRadius * 2)
-			.getWithoutAdding();
+		Entity entity = instantiate(unitArchetype, position.x, position.y, 0.0f, Constants.unitRadius, faction);
 
 		PhysicsComponent physicsComp = Components.PHYSICS.get(entity);
-		UnitComponent unitComp = engine.createComponent(UnitComponent.class).init(squad, physicsComp.getBody());
+		UnitComponent unitComp = engine.createComponent(UnitComponent.class).init(squad, physicsComp);
 		entity.add(unitComp);
 		squadComp.addMember(entity);
 
-		Components.STEERABLE.get(entity).setIndependentFacing(true);
+		SteerableComponent steerable = Components.STEERABLE.get(entity);
+		steerable.setIndependentFacing(true);
+		unitComp.getSteering().init(steerable);
+		unitComp.getProximity().set(steerable, spatialIndex, 0.1f, EntityCategory.RESOURCE | EntityCategory.UNIT,
+			GridProximity.factionBit(faction) | GridProximity.factionBit(Faction.NONE));
+
 		FSMComponent stateMachineComponent = engine.createComponent(FSMComponent.class).init(entity);
 		entity.add(stateMachineComponent);
 		stateMachineComponent.changeState(UnitState.IDLE);
 
-		engine.addEntity(entity);
 		return entity;
 	}
 
 	public static Entity createSquad (Vector2 position, Faction faction) {
-		Entity entity = builder.createEntity(EntityCategory.SQUAD, position).physicsBody(BodyType.DynamicBody).circleSensor(30.0f)
-			.faction(faction).target().filter(EntityCategory.SQUAD, 0, EntityCategory.SQUAD | EntityCategory.RESOURCE)
-			.steeringBehavior().stateMachine().getWithoutAdding();
+		Entity entity = buildSquad(position, faction);
+		engine.addEntity(entity);
+		return entity;
+	}
+
+	/** Builds a squad without adding it to the engine */
+	public static Entity buildSquad (Vector2 position, Faction faction) {
+		Entity entity = instantiate(squadArchetype, position.x, position.y, 0.0f, SQUAD_SENSOR_RADIUS, faction);
+		entity.add(engine.createComponent(FSMComponent.class).init(entity));
 
-		SteerableComponent steerable = engine.createComponent(SteerableComponent.class).init(
-			Components.PHYSICS.get(entity).getBody(), 30.0f);
+		SteerableComponent steerable = Components.STEERABLE.get(entity);
 		SquadComponent squadComp = engine.createComponent(SquadComponent.class).init(steerable);
 		squadComp.targetLocation.getPosition().set(position);
 		entity.add(squadComp);
@@ -135,54 +153,33 @@ public class EntityFactory {
 		steerable.setMaxLinearSpeed(SteerableComponent.MAX_LINEAR_SPEED / 2);
 		steerable.setMaxLinearAcceleration(SteerableComponent.MAX_LINEAR_ACCELERATION / 10);
 
-		Arrive<Vector2> arriveSB = new Arrive<Vector2>(steerable).setTarget(squadComp.targetLocation).setTimeToTarget(0.001f)
-			.setDecelerationRadius(2f).setArrivalTolerance(0.0001f);
-		SteeringBehavior<Vector2> sb = arriveSB;
-		
-		RadiusProximity<Vector2> proximity = new RadiusProximity<Vector2>(steerable, squadComp.friendlyAgents, 3.0f);
-		Separation<Vector2> separationSB = new Separation<Vector2>(steerable, proximity);
-
-		BlendedSteering<Vector2> blendedSteering = new BlendedSteering<Vector2>(steerable) //
-			.setLimiter(NullLimiter.NEUTRAL_LIMITER) //
-			.add(separationSB, 10000f)
-			.add(arriveSB, 0.5f);
-		sb = blendedSteering;
+		squadComp.getProximity().set(steerable, spatialIndex, 3.0f, EntityCategory.SQUAD, GridProximity.factionBit(faction));
+		Components.STEERING_BEHAVIOR.get(entity).setBehavior(squadComp.getSteering().advance(steerable, squadComp.targetLocation));
 		Components.FSM.get(entity).changeState(SquadComponent.DEFAULT_STATE);
 
-		Components.STEERING_BEHAVIOR.get(entity).setBehavior(sb);
-
-		entity.add(steerable);
-
-		engine.addEntity(entity);
 		return entity;
 	}
 
+	/** @return the projectile entity or null when projectiles are simulated by the {@link ProjectileSystem} */
 	public static Entity createProjectile (Vector2 position, Vector2 velocity, float radius, Faction faction, int damage) {
-		Entity entity = builder.createEntity(EntityCategory.PROJECTILE, position).physicsBody(BodyType.DynamicBody)
-			.circleSensor(radius)
-			.filter(EntityCategory.PROJECTILE, 0, EntityCategory.UNIT | EntityCategory.RESOURCE | EntityCategory.MOTHERSHIP)
-			.faction(faction).sprite(Assets.projectile.projectiles.get(faction.ordinal()), radius * 2, radius * 2)
-			.getWithoutAdding();
+		if (ProjectileSystem.enabled && projectileSystem != null) {
+			projectileSystem.fire(position, velocity, radius, faction, damage);
+			return null;
+		}
+
+		Entity entity = instantiate(projectileArchetype, position.x, position.y, velocity.angleRad(), radius, faction);
 
 		ProjectileComponent projectileComp = engine.createComponent(ProjectileComponent.class).init(damage);
 		entity.add(projectileComp);
 
-		entity.add(engine.createComponent(DecayComponent.class).init(Constants.projectileDecayTime));
-
 		PhysicsComponent physicsComp = Components.PHYSICS.get(entity);
-		physicsComp.getBody().setBullet(true);
 		physicsComp.getBody().setLinearVelocity(velocity);
-		physicsComp.getBody().setTransform(position, velocity.angle());
+		physicsComp.getTransforms().refresh(physicsComp.getSlot());
 
 		engine.addEntity(entity);
 		return entity;
 	}
 
-	public static Entity createParticle (Vector2 position, ParticleType type) {
-		Entity entity = builder.createEntity(EntityCategory.GRAPHICS, position).particle(type).addToEngine();
-		return entity;
-	}
-
 	public static Entity createBoundry (Vector2 start, Vector2 end) {
 		Entity entity = builder.createEntity(EntityCategory.WALL, new Vector2(0, 0)).physicsBody(BodyType.StaticBody)
 			.getWithoutAdding();
@@ -207,12 +204,54 @@ public class EntityFactory {
 		return entity;
 	}
 
+	/** Creates an entity from a compiled archetype without adding it to the engine. The components the archetype declares are
+	 * created directly instead of walking the {@link EntityBuilder} chain. */
+	private static Entity instantiate (Archetype archetype, float x, float y, float angle, float radius, Faction faction) {
+		Entity entity = engine.createEntity();
+		entity.flags = archetype.category;
+
+		Body body = archetype.createBody(physicsSystem, entity, x, y, angle, radius);
+		PhysicsComponent physics = engine.createComponent(PhysicsComponent.class).init(body, physicsSystem.getTransforms());
+		entity.add(physics);
+		entity.add(engine.createComponent(FactionComponent.class).init(faction));
+
+		if (archetype.regionName != null && !headless) {
+			entity.add(engine.createComponent(SpriteComponent.class).init(archetype.getRegion(faction), radius * 2, radius * 2));
+		}
+		if (archetype.steerable) entity.add(engine.createComponent(SteerableComponent.class).init(physics, radius));
+		if (archetype.steeringBehavior) entity.add(engine.createComponent(SteeringBehaviorComponent.class));
+		if (archetype.target) entity.add(engine.createComponent(TargetComponent.class));
+		if (archetype.health > 0) {
+			HealthComponent health = engine.createComponent(HealthComponent.class);
+			health.max = archetype.health;
+			health.value = archetype.health;
+			entity.add(health);
+		}
+		if (archetype.weaponDamage > 0) {
+			entity.add(engine.createComponent(WeaponComponent.class).init(archetype.weaponDamage, archetype.weaponAttackSpeed,
+				archetype.weaponProjectileRadius));
+		}
+		if (archetype.resourcePerRadius > 0) {
+			entity.add(engine.createComponent(ResourceComponent.class).init((int)(archetype.resourcePerRadius * radius)));
+		}
+		if (archetype.decay > 0) entity.add(engine.createComponent(DecayComponent.class).init(archetype.decay));
+		return entity;
+	}
+
 	/** Called when the GameManager first initializes a new engine
 	 * 
 	 * @param engine The engine that the factory will use to create its entities */
-	public static void setEngine (PooledEngine engine) {
+	public static void setEngine (EntityManager engine) {
 		EntityFactory.engine = engine;
+		headless = engine.isHeadless();
 		physicsSystem = engine.getSystem(PhysicsSystem.class);
+		spatialIndex = engine.getSystem(SpatialIndexSystem.class);
+		projectileSystem = engine.getSystem(ProjectileSystem.class);
+
+		unitArchetype = Archetypes.get("unit");
+		asteroidArchetype = Archetypes.get("asteroid");
+		projectileArchetype = Archetypes.get("projectile");
+		squadArchetype = Archetypes.get("squad");
 	}
 
 	/** Creates an entity from the engine when first instantiated Exit builder by calling addToEngine() or getWithoutAdding() */
@@ -232,12 +271,6 @@ public class EntityFactory {
 			return this;
 		}
 
-		public EntityBuilder particle (ParticleType type) {
-			PooledEffect effect = engine.getSystem(ParticleSystem.class).createEffect(position, type);
-			entity.add(engine.createComponent(ParticleComponent.class).init(effect));
-			return this;
-		}
-
 		public PhysicsBuilder buildPhysics (BodyType type) {
 			return physicsBuilder.reset(type, position, entity);
 		}
@@ -249,7 +282,7 @@ public class EntityFactory {
 			Body body = physicsSystem.createBody(def);
 			body.setUserData(entity);
 
-			PhysicsComponent physics = engine.createComponent(PhysicsComponent.class).init(body);
+			PhysicsComponent physics = engine.createComponent(PhysicsComponent.class).init(body, physicsSystem.getTransforms());
 			entity.add(physics);
 			return this;
 		}
@@ -324,7 +357,7 @@ public class EntityFactory {
 				Gdx.app.error(TAG, "cannot create a steerable without physics!");
 				return this;
 			}
-			SteerableComponent steerable = engine.createComponent(SteerableComponent.class).init(physics.getBody(), radius);
+			SteerableComponent steerable = engine.createComponent(SteerableComponent.class).init(physics, radius);
 			entity.add(steerable);
 			return this;
 		}
@@ -398,8 +431,7 @@ public class EntityFactory {
 		}
 
 		public EntityBuilder sprite (TextureRegion region, float width, float height) {
-			SpriteComponent spriteComp = engine.createComponent(SpriteComponent.class).init(region, position.x, position.y, width,
-				height);
+			SpriteComponent spriteComp = engine.createComponent(SpriteComponent.class).init(region, width, height);
 			entity.add(spriteComp);
 			return this;
 		}
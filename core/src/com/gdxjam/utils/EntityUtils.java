@@ -2,27 +2,38 @@
 package com.gdxjam.utils;
 
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.core.PooledEngine;
-import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.ai.msg.MessageManager;
-import com.gdxjam.ai.state.TelegramMessage;
-import com.gdxjam.components.FSMComponent;
 import com.gdxjam.components.FactionComponent.Faction;
-import com.gdxjam.components.TargetComponent;
 import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityManager;
 import com.gdxjam.systems.GUISystem;
+import com.gdxjam.systems.HealthSystem;
+import com.gdxjam.systems.ResourceSystem;
 
 public class EntityUtils {
 
 	private static final String TAG = "[" + EntityUtils.class.getSimpleName() + "]";
-	private static PooledEngine engine;
+	private static EntityManager engine;
 	private static GUISystem guiSystem;
+	private static ResourceSystem resourceSystem;
+	private static HealthSystem healthSystem;
 
-	public static void setEngine (PooledEngine engine) {
+	public static void setEngine (EntityManager engine) {
 		EntityUtils.engine = engine;
 		EntityUtils.guiSystem = engine.getSystem(GUISystem.class);
+		EntityUtils.resourceSystem = engine.getSystem(ResourceSystem.class);
+		EntityUtils.healthSystem = engine.getSystem(HealthSystem.class);
+	}
+
+	/** Queues a hit on the target with the {@link HealthSystem}
+	 * @param source the faction that dealt the damage, null if unknown */
+	public static void damage (Entity target, int amount, Faction source) {
+		healthSystem.damage(target, amount, source);
+	}
+
+	/** Harvests the resource through the {@link ResourceSystem} so it is checked for depletion */
+	public static void harvest (Entity resource, float amount) {
+		resourceSystem.harvest(resource, amount);
 	}
 
 	/** Checks to see if two entities are of the same faction
@@ -41,26 +52,9 @@ public class EntityUtils {
 		return factionA == factionB;
 	}
 
-	public static void clearTarget (Entity target) {
-		ImmutableArray<Entity> entities = engine.getEntitiesFor(Family.all(TargetComponent.class).get());
-		
-		for (Entity entity : entities) {
-			TargetComponent targetComp = Components.TARGET.get(entity);
-			if (targetComp.getTarget() == target) {
-				targetComp.setTarget(null);
-
-				//Dispatch a message to the entites FSM that there target was removed from the engine
-				if (Components.FSM.has(entity)) {
-					FSMComponent fsm = Components.FSM.get(entity);
-					MessageManager.getInstance().dispatchMessage(null, fsm, TelegramMessage.TARGET_REMOVED.ordinal(), target);
-				}
-			}
-
-		}
-	}
-
+	/** Removes the entity at the next sync point of the engine */
 	public static void removeEntity (Entity entity) {
-		engine.removeEntity(entity);
+		engine.getCommands().destroy(entity);
 	}
 
 }
@@ -16,6 +16,12 @@ public class Range {
 		this.max = max;
 	}
 
+	public Range set (float min, float max) {
+		this.min = min;
+		this.max = max;
+		return this;
+	}
+
 	/** @return The minimum value of the range */
 	public float min () {
 		return min;
@@ -0,0 +1,16 @@
+package com.gdxjam.utils;
+
+/** Platform specific statistics about the virtual machine. Backends that can read them register an implementation with
+ * {@link com.gdxjam.GameManager#setRuntimeStats(RuntimeStats)}. */
+public interface RuntimeStats {
+
+	/** @return the total number of garbage collections since the virtual machine started */
+	public long getCollectionCount ();
+
+	/** @return the total time spent collecting garbage in milliseconds */
+	public long getCollectionTime ();
+
+	/** @return the bytes allocated on the heap by the calling thread since it started, or -1 when it can not be measured */
+	public long getAllocatedBytes ();
+
+}
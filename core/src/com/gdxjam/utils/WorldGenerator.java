@@ -9,6 +9,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
 import com.gdxjam.Assets;
 import com.gdxjam.GameManager;
+import com.gdxjam.ecs.EntityManager;
 import com.gdxjam.systems.SquadSystem;
 import com.gdxjam.systems.WaveSystem;
 
@@ -43,6 +44,9 @@ public class WorldGenerator {
 	}
 
 	public void generate () {
+		// Listeners are notified once for the whole world instead of once per entity
+		EntityManager engine = GameManager.getEngine();
+		engine.beginBatch();
 		// createWorldBounds();
 		generateAsteroidField();
 		if (param.generateBackground) {
@@ -50,6 +54,7 @@ public class WorldGenerator {
 		}
 		populateWorld();
 		// generateSpawners();
+		engine.endBatch();
 	}
 
 	public void createWorldBounds () {
@@ -78,7 +83,7 @@ public class WorldGenerator {
 	}
 
 	public void generateSpawners () {
-		WaveSystem.initalizeSpawns();
+		GameManager.getEngine().getSystem(WaveSystem.class).initalizeSpawns();
 	}
 
 	public void createBackground () {
@@ -6,6 +6,7 @@ import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import com.badlogic.gdx.tools.texturepacker.TexturePacker;
 import com.badlogic.gdx.tools.texturepacker.TexturePacker.Settings;
 import com.gdxjam.Assets;
+import com.gdxjam.GameManager;
 import com.gdxjam.Main;
 
 public class DesktopLauncher {
@@ -32,6 +33,7 @@ public class DesktopLauncher {
 		config.addIcon("icon32.png", FileType.Internal);
 		config.addIcon("icon16.png", FileType.Internal);
 
+		GameManager.setRuntimeStats(new DesktopRuntimeStats());
 		new LwjglApplication(new Main(), config);
 
 	}
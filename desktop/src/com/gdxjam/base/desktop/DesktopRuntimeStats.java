@@ -0,0 +1,50 @@
+package com.gdxjam.base.desktop;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import com.gdxjam.utils.RuntimeStats;
+
+/** Reads the statistics from the management beans of the running virtual machine. Allocated bytes are only available on HotSpot
+ * based virtual machines and never include native Box2D allocations. */
+public class DesktopRuntimeStats implements RuntimeStats {
+
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+	private final com.sun.management.ThreadMXBean threads;
+
+	public DesktopRuntimeStats () {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean
+			&& ((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported()) {
+			threads = (com.sun.management.ThreadMXBean)bean;
+			threads.setThreadAllocatedMemoryEnabled(true);
+		} else {
+			threads = null;
+		}
+	}
+
+	@Override
+	public long getCollectionCount () {
+		long count = 0;
+		for (int i = 0; i < collectors.size(); i++)
+			count += Math.max(0, collectors.get(i).getCollectionCount());
+		return count;
+	}
+
+	@Override
+	public long getCollectionTime () {
+		long time = 0;
+		for (int i = 0; i < collectors.size(); i++)
+			time += Math.max(0, collectors.get(i).getCollectionTime());
+		return time;
+	}
+
+	@Override
+	public long getAllocatedBytes () {
+		if (threads == null) return -1;
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.gdxjam.base.desktop.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.gdxjam.ecs.EntityManager;
+import com.gdxjam.systems.WaveSystem;
+import com.gdxjam.utils.Constants;
+
+/** Two equal armies in open space. The player squads hold the centre while the enemy squads close in on them from a ring. */
+public class BattleScenario extends Scenario {
+
+	public static final int WORLD_SIZE = 256;
+
+	private final int squadsPerSide;
+	private final int members;
+
+	public BattleScenario (int squadsPerSide, int members, int ticks) {
+		super("battle-" + squadsPerSide + "v" + squadsPerSide + "x" + members, ticks);
+		this.squadsPerSide = squadsPerSide;
+		this.members = members;
+	}
+
+	@Override
+	public void create (EntityManager engine) {
+		MathUtils.random.setSeed(SEED);
+		WaveSystem.spawnPoints.clear();
+		setWorldBounds(engine, WORLD_SIZE, WORLD_SIZE);
+
+		Vector2 center = new Vector2(WORLD_SIZE * 0.5f, WORLD_SIZE * 0.5f);
+		engine.beginBatch();
+		createSquadRing(engine, center, 16.0f, squadsPerSide, members, Constants.playerFaction);
+		createSquadRing(engine, center, WORLD_SIZE * 0.4f, squadsPerSide, members, Constants.enemyFaction);
+		engine.endBatch();
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.gdxjam.base.desktop.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.gdxjam.systems.ProjectileSystem;
+
+/** Runs the benchmark scenarios without a display and prints the results as JSON. Must be started from the assets directory.
+ * <p>
+ * Arguments: {@code [--ticks n] [--out file] [--no-alloc System,System] [--steady-state tick] [--body-projectiles]
+ * [scenario name prefix...]}
+ * <p>
+ * Systems listed with {@code --no-alloc} make the run fail once they allocate after the steady state tick,
+ * {@code EntityCommandBuffer} stands for the playback of the recorded entity commands.
+ * {@code --body-projectiles} simulates projectiles as Box2D bodies instead of with the {@link ProjectileSystem}. */
+public class BenchmarkLauncher {
+
+	public static final int DEFAULT_TICKS = 1800;
+
+	public static void main (String[] args) throws IOException {
+		int ticks = DEFAULT_TICKS;
+		String out = null;
+		String[] allocationFree = new String[0];
+		int steadyStateTick = 0;
+		Array<String> filters = new Array<String>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--ticks"))
+				ticks = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--out"))
+				out = args[++i];
+			else if (args[i].equals("--no-alloc"))
+				allocationFree = args[++i].split(",");
+			else if (args[i].equals("--steady-state"))
+				steadyStateTick = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--body-projectiles"))
+				ProjectileSystem.enabled = false;
+			else
+				filters.add(args[i]);
+		}
+
+		Array<Scenario> scenarios = new Array<Scenario>();
+		for (Scenario scenario : createScenarios(ticks)) {
+			if (matches(scenario, filters)) scenarios.add(scenario);
+		}
+
+		Writer writer = out == null ? new OutputStreamWriter(System.out) : new FileHandle(out).writer(false, "UTF-8");
+
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		BenchmarkRunner runner = new BenchmarkRunner(scenarios, writer);
+		for (String system : allocationFree)
+			runner.requireNoAllocation(system.trim());
+		runner.setSteadyStateTick(steadyStateTick);
+		new HeadlessApplication(runner, config);
+	}
+
+	/** The battle series scales from roughly a hundred to ten thousand units */
+	private static Array<Scenario> createScenarios (int ticks) {
+		Array<Scenario> scenarios = new Array<Scenario>();
+		scenarios.add(new BattleScenario(3, 20, ticks));
+		scenarios.add(new BattleScenario(10, 20, ticks));
+		scenarios.add(new BattleScenario(25, 20, ticks));
+		scenarios.add(new BattleScenario(100, 20, ticks));
+		scenarios.add(new BattleScenario(250, 20, ticks));
+		scenarios.add(new HarvestScenario(50, 20, ticks));
+		scenarios.add(new SiegeScenario(5, ticks * 3));
+		scenarios.add(new SpawnCycleScenario(8, 10, ticks));
+		return scenarios;
+	}
+
+	private static boolean matches (Scenario scenario, Array<String> filters) {
+		if (filters.size == 0) return true;
+		for (String filter : filters) {
+			if (scenario.name.startsWith(filter)) return true;
+		}
+		return false;
+	}
+
+}
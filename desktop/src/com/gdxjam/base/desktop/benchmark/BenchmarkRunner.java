@@ -0,0 +1,201 @@
+package com.gdxjam.base.desktop.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.JsonWriter;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.gdxjam.GameContext;
+import com.gdxjam.GameManager;
+import com.gdxjam.ai.state.TelegramMessage;
+import com.gdxjam.ai.state.TelegramStats;
+import com.gdxjam.base.desktop.DesktopRuntimeStats;
+import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.components.UnitComponent;
+import com.gdxjam.ecs.EntityManager;
+import com.gdxjam.ecs.SystemProfiler;
+import com.gdxjam.systems.HealthSystem;
+import com.gdxjam.systems.PhysicsSystem;
+import com.gdxjam.utils.DamageStats;
+
+/** Runs the scenarios one after the other on a single headless engine, restarting the match in between the same way a retry
+ * after a game over does, and writes one JSON object per scenario. Every scenario is warmed up for
+ * {@link #WARMUP_TICKS} ticks before it is measured so the results are not dominated by class loading and compilation.
+ * <p>
+ * Systems named with {@link #requireNoAllocation(String)} or in a scenario's {@link Scenario#allocationFree} list fail the run as
+ * soon as they allocate after the steady state tick. The playback of the entity command buffer is named
+ * {@link SystemProfiler#PLAYBACK} there. */
+public class BenchmarkRunner extends ApplicationAdapter {
+
+	private static final String TAG = "[" + BenchmarkRunner.class.getSimpleName() + "]";
+
+	public static final int WARMUP_TICKS = 120;
+
+	private final Array<Scenario> scenarios;
+	private final Writer writer;
+	private final DesktopRuntimeStats stats = new DesktopRuntimeStats();
+	private final Array<String> allocationFree = new Array<String>();
+	private int steadyStateTick = 0;
+	private final IntArray topAllocators = new IntArray();
+	private final DamageStats damageStats = new DamageStats();
+
+	public BenchmarkRunner (Array<Scenario> scenarios, Writer writer) {
+		this.scenarios = scenarios;
+		this.writer = writer;
+	}
+
+	/** @param systemName the simple class name of a system that must not allocate in steady state, or
+	 *           {@link SystemProfiler#PLAYBACK} */
+	public void requireNoAllocation (String systemName) {
+		allocationFree.add(systemName);
+	}
+
+	/** @param tick the measured tick from which on the systems given to {@link #requireNoAllocation(String)} must not allocate */
+	public void setSteadyStateTick (int tick) {
+		steadyStateTick = tick;
+	}
+
+	@Override
+	public void create () {
+		Gdx.app.setLogLevel(Application.LOG_INFO);
+		JsonWriter json = new JsonWriter(writer);
+		json.setOutputType(OutputType.json);
+		try {
+			json.array();
+			EntityManager engine = GameManager.initEngine(true);
+			for (int i = 0; i < scenarios.size; i++) {
+				Scenario scenario = scenarios.get(i);
+				Gdx.app.log(TAG, "running " + scenario.name);
+				GameManager.restartMatch();
+				run(engine, scenario, json);
+			}
+			json.pop();
+			json.close();
+		} catch (IOException e) {
+			throw new GdxRuntimeException("could not write benchmark results", e);
+		}
+		GameManager.disposeEngine();
+		GameContext.dispose();
+		Gdx.app.exit();
+	}
+
+	/** Registers the named systems with the profiler. Unknown names fail the run so a typo can not make the check pass. */
+	private void requireNoAllocation (SystemProfiler profiler, Array<String> systemNames) {
+		if (systemNames.size == 0) return;
+		if (!profiler.isTrackingAllocations())
+			throw new GdxRuntimeException("allocations can not be measured on this virtual machine, remove --no-alloc");
+
+		for (int i = 0; i < systemNames.size; i++) {
+			String name = systemNames.get(i);
+			int index = profiler.indexOfSlot(name);
+			if (index < 0) throw new GdxRuntimeException("unknown system given to --no-alloc: " + name);
+			profiler.requireNoAllocation(index);
+		}
+	}
+
+	private void run (EntityManager engine, Scenario scenario, JsonWriter json) throws IOException {
+		scenario.create(engine);
+		World world = engine.getSystem(PhysicsSystem.class).getWorld();
+		Family units = Family.all(UnitComponent.class).get();
+
+		for (int tick = 0; tick < WARMUP_TICKS; tick++)
+			engine.update(PhysicsSystem.TIME_STEP);
+
+		SystemProfiler profiler = new SystemProfiler();
+		engine.setProfiler(profiler);
+		profiler.trackAllocations(stats);
+		profiler.setSteadyStateTick(Math.max(steadyStateTick, scenario.steadyStateTick));
+		requireNoAllocation(profiler, allocationFree);
+		if (profiler.isTrackingAllocations()) requireNoAllocation(profiler, scenario.allocationFree);
+		TelegramStats.reset();
+		damageStats.reset();
+		HealthSystem healthSystem = engine.getSystem(HealthSystem.class);
+		healthSystem.addDamageListener(damageStats);
+
+		int startUnits = engine.getEntitiesFor(units).size();
+		long bodies = 0, contacts = 0;
+		int peakBodies = 0, peakContacts = 0;
+
+		long startBytes = stats.getAllocatedBytes();
+		long startTime = TimeUtils.nanoTime();
+		for (int tick = 0; tick < scenario.ticks; tick++) {
+			scenario.update(engine, tick);
+			engine.update(PhysicsSystem.TIME_STEP);
+
+			bodies += world.getBodyCount();
+			contacts += world.getContactCount();
+			peakBodies = Math.max(peakBodies, world.getBodyCount());
+			peakContacts = Math.max(peakContacts, world.getContactCount());
+		}
+		long elapsed = TimeUtils.nanoTime() - startTime;
+		long allocated = stats.getAllocatedBytes() - startBytes;
+
+		json.object();
+		json.set("scenario", scenario.name);
+		json.set("ticks", scenario.ticks);
+		json.set("units", startUnits);
+		json.set("unitsRemaining", engine.getEntitiesFor(units).size());
+		json.set("seconds", elapsed / 1e9);
+		json.set("ticksPerSecond", scenario.ticks / (elapsed / 1e9));
+		if (profiler.isTrackingAllocations()) json.set("allocatedBytesPerTick", allocated / scenario.ticks);
+
+		json.object("systemMillisPerTick");
+		for (int i = 0; i < profiler.getSlotCount(); i++)
+			json.set(profiler.getSlotName(i), profiler.getTotalTime(i) / 1e6 / profiler.getTicks());
+		json.pop();
+
+		if (profiler.isTrackingAllocations()) {
+			json.array("topAllocators");
+			profiler.getTopAllocators(topAllocators);
+			for (int i = 0; i < topAllocators.size; i++) {
+				int index = topAllocators.get(i);
+				json.object();
+				json.set("system", profiler.getSlotName(index));
+				json.set("bytesPerTick", profiler.getTotalBytes(index) / profiler.getTicks());
+				json.pop();
+			}
+			json.pop();
+		}
+
+		json.object("box2d");
+		json.set("averageBodies", bodies / scenario.ticks);
+		json.set("peakBodies", peakBodies);
+		json.set("averageContacts", contacts / scenario.ticks);
+		json.set("peakContacts", peakContacts);
+		json.pop();
+
+		json.object("messages");
+		json.set("total", TelegramStats.getTotal());
+		for (TelegramMessage message : TelegramMessage.values()) {
+			int count = TelegramStats.getCount(message);
+			if (count > 0) json.set(message.name(), count);
+		}
+		json.pop();
+
+		json.object("damage");
+		json.set("hits", damageStats.getHits());
+		for (Faction faction : Faction.values()) {
+			json.object(faction.name());
+			json.set("dealt", damageStats.getDamage(faction));
+			json.set("kills", damageStats.getKills(faction));
+			json.pop();
+		}
+		json.pop();
+
+		json.pop();
+		writer.flush();
+
+		engine.setProfiler(null);
+		healthSystem.removeDamageListener(damageStats);
+	}
+
+}
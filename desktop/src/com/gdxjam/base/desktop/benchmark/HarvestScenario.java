@@ -0,0 +1,30 @@
+package com.gdxjam.base.desktop.benchmark;
+
+import com.gdxjam.ecs.EntityManager;
+import com.gdxjam.utils.WorldGenerator.WorldGeneratorParameter;
+
+/** Player squads surrounded by a dense asteroid field with no enemies around */
+public class HarvestScenario extends Scenario {
+
+	public static final int WORLD_SIZE = 256;
+
+	private final int squads;
+	private final int members;
+
+	public HarvestScenario (int squads, int members, int ticks) {
+		super("harvest-" + squads + "x" + members, ticks);
+		this.squads = squads;
+		this.members = members;
+	}
+
+	@Override
+	public void create (EntityManager engine) {
+		WorldGeneratorParameter param = new WorldGeneratorParameter();
+		param.asteroidDensity = 0.5f;
+		param.heightThreshold = -0.5f;
+		param.initalSquads = squads;
+		param.squadMembers = members;
+		generateWorld(engine, WORLD_SIZE, WORLD_SIZE, param);
+	}
+
+}
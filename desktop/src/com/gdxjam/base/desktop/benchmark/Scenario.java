@@ -0,0 +1,66 @@
+package com.gdxjam.base.desktop.benchmark;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.gdxjam.GameManager;
+import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.ecs.EntityManager;
+import com.gdxjam.systems.CameraSystem;
+import com.gdxjam.systems.NavigationSystem;
+import com.gdxjam.systems.SpatialIndexSystem;
+import com.gdxjam.systems.SquadSystem;
+import com.gdxjam.utils.WorldGenerator.WorldGeneratorParameter;
+
+/** A scripted situation run by the {@link BenchmarkRunner} for a fixed number of ticks on a headless engine */
+public abstract class Scenario {
+
+	public static final long SEED = 1337;
+
+	public final String name;
+	public final int ticks;
+
+	/** Systems that must not allocate in this scenario, checked in addition to the ones given on the command line whenever the
+	 * virtual machine can measure allocations */
+	public final Array<String> allocationFree = new Array<String>();
+	/** The measured tick from which on {@link #allocationFree} is checked, once the pools have grown to their working size */
+	public int steadyStateTick = 0;
+
+	public Scenario (String name, int ticks) {
+		this.name = name;
+		this.ticks = ticks;
+	}
+
+	/** Populates the engine, emptied by {@link com.gdxjam.GameManager#restartMatch()}. Random number generation is seeded so every
+	 * run of a scenario starts the same way. */
+	public abstract void create (EntityManager engine);
+
+	/** Called before every measured tick */
+	public void update (EntityManager engine, int tick) {
+	}
+
+	/** Generates a world the same way the game screen does, minus the background art */
+	protected void generateWorld (EntityManager engine, int width, int height, WorldGeneratorParameter param) {
+		MathUtils.random.setSeed(SEED);
+		param.generateBackground = false;
+		GameManager.generateWorld(width, height, SEED, param);
+	}
+
+	protected void setWorldBounds (EntityManager engine, int width, int height) {
+		engine.getSystem(CameraSystem.class).getCamera().position.set(width * 0.5f, height * 0.5f, 0);
+		engine.getSystem(CameraSystem.class).setWorldBounds(width, height);
+		engine.getSystem(SpatialIndexSystem.class).setWorldBounds(width, height);
+		engine.getSystem(NavigationSystem.class).setWorldBounds(width, height);
+	}
+
+	/** Places squads on a ring around a point */
+	protected void createSquadRing (EntityManager engine, Vector2 center, float radius, int squads, int members, Faction faction) {
+		SquadSystem squadSystem = engine.getSystem(SquadSystem.class);
+		Vector2 position = new Vector2();
+		for (int i = 0; i < squads; i++) {
+			position.set(radius, 0).setAngle(360.0f * i / squads).add(center);
+			squadSystem.createSquad(position, faction, members);
+		}
+	}
+
+}
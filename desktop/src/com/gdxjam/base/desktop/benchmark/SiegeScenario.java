@@ -0,0 +1,35 @@
+package com.gdxjam.base.desktop.benchmark;
+
+import com.gdxjam.ecs.EntityManager;
+import com.gdxjam.systems.SpawnSystem;
+import com.gdxjam.systems.WaveSystem;
+import com.gdxjam.utils.WorldGenerator.WorldGeneratorParameter;
+
+/** A generated world whose mothership is attacked by waves at a fixed interval instead of the usual two to three minutes */
+public class SiegeScenario extends Scenario {
+
+	public static final int WORLD_SIZE = 256;
+
+	private final int waves;
+	private final int interval;
+
+	public SiegeScenario (int waves, int ticks) {
+		super("siege-" + waves + "waves", ticks);
+		this.waves = waves;
+		this.interval = ticks / waves;
+	}
+
+	@Override
+	public void create (EntityManager engine) {
+		generateWorld(engine, WORLD_SIZE, WORLD_SIZE, new WorldGeneratorParameter());
+	}
+
+	@Override
+	public void update (EntityManager engine, int tick) {
+		// The wave is handed to the spawn system right away and arrives once it has been built
+		if (tick % interval == 0 && tick / interval < waves) {
+			engine.getSystem(WaveSystem.class).setTimeToNextWave(SpawnSystem.PREBUILD_TIME);
+		}
+	}
+
+}
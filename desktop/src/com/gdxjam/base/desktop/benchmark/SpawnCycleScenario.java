@@ -0,0 +1,79 @@
+package com.gdxjam.base.desktop.benchmark;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.gdxjam.components.FactionComponent.Faction;
+import com.gdxjam.components.HealthComponent;
+import com.gdxjam.components.SquadComponent;
+import com.gdxjam.ecs.Components;
+import com.gdxjam.ecs.EntityManager;
+import com.gdxjam.ecs.SystemProfiler;
+import com.gdxjam.systems.HealthSystem;
+import com.gdxjam.systems.SpawnSystem;
+import com.gdxjam.systems.SquadSystem;
+
+/** An empty world where squads are scheduled with the {@link SpawnSystem} and killed again every {@link #CYCLE_TICKS} ticks, so
+ * the spawn and despawn paths run over and over on pooled entities, components, bodies and formation slots. Spawning, killing
+ * and the command playback removing the dead are all required to be allocation free. */
+public class SpawnCycleScenario extends Scenario {
+
+	public static final int WORLD_SIZE = 256;
+	public static final int CYCLE_TICKS = 60;
+
+	private static final int GROUP = 1;
+
+	private final int squads;
+	private final int members;
+	private final Vector2 position = new Vector2();
+	private final Family squadFamily = Family.all(SquadComponent.class).get();
+
+	public SpawnCycleScenario (int squads, int members, int ticks) {
+		super("spawn-cycle-" + squads + "x" + members, ticks);
+		this.squads = squads;
+		this.members = members;
+
+		// The first cycles grow the pools and the damage queue to their working size
+		steadyStateTick = CYCLE_TICKS * 2;
+		allocationFree.add(HealthSystem.class.getSimpleName());
+		allocationFree.add(SquadSystem.class.getSimpleName());
+		allocationFree.add(SpawnSystem.class.getSimpleName());
+		allocationFree.add(SystemProfiler.PLAYBACK);
+	}
+
+	@Override
+	public void create (EntityManager engine) {
+		MathUtils.random.setSeed(SEED);
+		setWorldBounds(engine, WORLD_SIZE, WORLD_SIZE);
+	}
+
+	@Override
+	public void update (EntityManager engine, int tick) {
+		if (tick % CYCLE_TICKS != 0) return;
+
+		despawn(engine);
+
+		SpawnSystem spawnSystem = engine.getSystem(SpawnSystem.class);
+		for (int i = 0; i < squads; i++) {
+			position.set(MathUtils.random(16, WORLD_SIZE - 16), MathUtils.random(16, WORLD_SIZE - 16));
+			spawnSystem.schedule(position, Faction.FACTION0, members, 0.0f, GROUP);
+		}
+	}
+
+	/** Kills every member of the squads alive, the squads are removed with their last member */
+	private void despawn (EntityManager engine) {
+		HealthSystem healthSystem = engine.getSystem(HealthSystem.class);
+		ImmutableArray<Entity> squadEntities = engine.getEntitiesFor(squadFamily);
+		for (int i = 0; i < squadEntities.size(); i++) {
+			SquadComponent squadComp = Components.SQUAD.get(squadEntities.get(i));
+			for (int j = 0; j < squadComp.members.size; j++) {
+				Entity unit = squadComp.members.get(j);
+				HealthComponent health = Components.HEALTH.get(unit);
+				if (health != null) healthSystem.damage(unit, health.max, null);
+			}
+		}
+	}
+
+}